@@ -22,5 +22,20 @@ public class BotConfig {
     @Value("${mainbot.username}")
     String mainBotUsername;
 
+    /** true — апдейты приходят вебхуком на встроенный веб-сервер, false — long polling */
+    @Value("${bot.webhook.enabled:false}")
+    boolean webhookEnabled;
+
+    /** Публичный адрес сервиса, например https://bot.example.com */
+    @Value("${bot.webhook.url:}")
+    String webhookUrl;
+
+    @Value("${bot.webhook.path:/telegram/webhook}")
+    String webhookPath;
+
+    /** Значение заголовка X-Telegram-Bot-Api-Secret-Token */
+    @Value("${bot.webhook.secret:}")
+    String webhookSecret;
+
     Long groupChatId;
 }
@@ -0,0 +1,128 @@
+package com.example.group.config;
+
+import com.example.group.controllers.MainBotEndpoint;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * HTTP-транспорт к API основного бота: пул keep-alive соединений, таймауты на каждый эндпоинт,
+ * gzip (HttpClient 5 сам шлёт {@code Accept-Encoding} и распаковывает ответ) и метрики —
+ * занятость пула и время ответа по эндпоинтам. Нужен только блокирующему клиенту.
+ */
+@Configuration
+@ConditionalOnProperty(name = "mainbot.api.client", havingValue = "rest", matchIfMissing = true)
+public class MainBotHttpConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager mainBotConnectionManager(
+            MeterRegistry meterRegistry,
+            MainBotTimeouts timeouts,
+            @Value("${mainbot.http.max-connections:20}") int maxConnections) {
+        PoolingHttpClientConnectionManager manager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections) // хост один
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(timeouts.connect()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .build())
+                .build();
+
+        registerPoolGauge(meterRegistry, manager, "leased", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, manager, "available", PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, manager, "pending", PoolStats::getPending); // ждут соединения
+        registerPoolGauge(meterRegistry, manager, "max", PoolStats::getMax);
+        return manager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient mainBotHttpClient(PoolingHttpClientConnectionManager mainBotConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(mainBotConnectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate mainBotRestTemplate(CloseableHttpClient mainBotHttpClient,
+                                            MeterRegistry meterRegistry,
+                                            MainBotTimeouts timeouts) {
+        Map<MainBotEndpoint, RequestConfig> configs = new EnumMap<>(MainBotEndpoint.class);
+        for (MainBotEndpoint endpoint : MainBotEndpoint.values()) {
+            configs.put(endpoint, RequestConfig.custom()
+                    .setConnectionRequestTimeout(Timeout.of(timeouts.pool()))
+                    .setResponseTimeout(Timeout.of(timeouts.response(endpoint)))
+                    .build());
+        }
+
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(mainBotHttpClient) {
+            @Override
+            protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+                HttpClientContext context = HttpClientContext.create();
+                context.setRequestConfig(configs.get(MainBotEndpoint.of(uri)));
+                return context;
+            }
+        };
+
+        RestTemplate restTemplate = new RestTemplate(factory);
+        restTemplate.getInterceptors().add(timingInterceptor(meterRegistry));
+        return restTemplate;
+    }
+
+    /** Время до получения заголовков ответа, по эндпоинту и статусу */
+    private static ClientHttpRequestInterceptor timingInterceptor(MeterRegistry meterRegistry) {
+        return (request, body, execution) -> {
+            MainBotEndpoint endpoint = MainBotEndpoint.of(request.getURI());
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String status = "IO_ERROR";
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                status = String.valueOf(response.getStatusCode().value());
+                return response;
+            } finally {
+                sample.stop(Timer.builder("mainbot.api.requests")
+                        .description("Main bot API calls")
+                        .tag("endpoint", endpoint.path())
+                        .tag("method", request.getMethod().name())
+                        .tag("status", status)
+                        .register(meterRegistry));
+            }
+        };
+    }
+
+    private static void registerPoolGauge(MeterRegistry meterRegistry,
+                                          PoolingHttpClientConnectionManager manager,
+                                          String state,
+                                          ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("mainbot.http.pool.connections", manager, m -> value.applyAsDouble(m.getTotalStats()))
+                .description("Main bot API connection pool by state")
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+}
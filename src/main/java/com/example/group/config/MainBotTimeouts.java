@@ -0,0 +1,49 @@
+package com.example.group.config;
+
+import com.example.group.controllers.MainBotEndpoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Таймауты обращений к основному боту. Время ответа задаётся на эндпоинт
+ * ({@code mainbot.http.endpoints.<key>.response-timeout-ms}), по умолчанию —
+ * {@code mainbot.http.response-timeout-ms}. Общие для обоих клиентов (RestTemplate и WebClient).
+ */
+@Component
+public class MainBotTimeouts {
+
+    private final Map<MainBotEndpoint, Duration> responseTimeouts = new EnumMap<>(MainBotEndpoint.class);
+    private final Duration connect;
+    private final Duration pool;
+
+    public MainBotTimeouts(Environment environment,
+                           @Value("${mainbot.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+                           @Value("${mainbot.http.pool-timeout-ms:1000}") long poolTimeoutMs,
+                           @Value("${mainbot.http.response-timeout-ms:5000}") long responseTimeoutMs) {
+        this.connect = Duration.ofMillis(connectTimeoutMs);
+        this.pool = Duration.ofMillis(poolTimeoutMs);
+        for (MainBotEndpoint endpoint : MainBotEndpoint.values()) {
+            long timeout = environment.getProperty(
+                    "mainbot.http.endpoints." + endpoint.key() + ".response-timeout-ms", Long.class, responseTimeoutMs);
+            responseTimeouts.put(endpoint, Duration.ofMillis(timeout));
+        }
+    }
+
+    public Duration response(MainBotEndpoint endpoint) {
+        return responseTimeouts.get(endpoint);
+    }
+
+    public Duration connect() {
+        return connect;
+    }
+
+    /** Сколько ждать свободного соединения из пула */
+    public Duration pool() {
+        return pool;
+    }
+}
@@ -2,12 +2,15 @@ package com.example.group.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class RestTemplateConfig {
 
+    /** Общий клиент (Telegram API); для основного бота — {@code mainBotRestTemplate} */
     @Bean
+    @Primary
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
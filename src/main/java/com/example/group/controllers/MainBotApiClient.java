@@ -1,8 +1,10 @@
 package com.example.group.controllers;
 
+import com.example.group.dto.SlotBatchDTO;
 import com.example.group.dto.SlotDTO;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface MainBotApiClient {
@@ -10,6 +12,13 @@ public interface MainBotApiClient {
     /** Все слоты на конкретную дату (для поиска по паттерну) */
     List<SlotDTO> getSlotsForDate(LocalDate date);
 
+    /** Слоты на несколько дат, в порядке дат; реализация может запрашивать даты параллельно */
+    default List<SlotDTO> getSlotsForDates(Collection<LocalDate> dates) {
+        return dates.stream()
+                .flatMap(date -> getSlotsForDate(date).stream())
+                .toList();
+    }
+
     /** Все будущие слоты (для утренней рассылки) */
     List<SlotDTO> getUpcomingSlots();
 
@@ -17,6 +26,20 @@ public interface MainBotApiClient {
 
     SlotDTO getExpiredSlotById(Long slotId);
 
+    /**
+     * Активные и завершённые слоты по списку id за один запрос (с разбиением на чанки).
+     * Id, которых нет в ответе, в основном боте удалены.
+     */
+    SlotBatchDTO getSlotsByIds(Collection<Long> slotIds);
+
     /** Создать запись на слот для пользователя */
     void createBooking(Long telegramUserId, Long slotId, String username, String firstName, String lastName);
+
+    /**
+     * Отдано ли последнее чтение в этом потоке из последнего удачного ответа, потому что основной
+     * бот не ответил. Транспортные клиенты старых ответов не хранят и всегда возвращают false.
+     */
+    default boolean lastReadWasStale() {
+        return false;
+    }
 }
@@ -0,0 +1,80 @@
+package com.example.group.controllers;
+
+import java.net.URI;
+
+/**
+ * Эндпоинты API основного бота. По ним настраиваются таймауты
+ * ({@code mainbot.http.endpoints.<key>.response-timeout-ms}) и размечаются метрики.
+ */
+public enum MainBotEndpoint {
+
+    SLOTS_BY_DATE("slots", "/slots"),
+    UPCOMING_SLOTS("slots-upcoming", "/slots/upcoming"),
+    SLOT_BY_ID("slot", "/slots/{id}"),
+    EXPIRED_SLOT_BY_ID("slot-expired", "/slots/expired/{id}"),
+    SLOTS_BATCH("slots-batch", "/slots/batch"),
+    BOOKINGS("bookings", "/bookings"),
+    OTHER("other", "other");
+
+    private final String key;
+    private final String path;
+
+    MainBotEndpoint(String key, String path) {
+        this.key = key;
+        this.path = path;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    /** Шаблон пути — значение тега {@code endpoint} в метриках */
+    public String path() {
+        return path;
+    }
+
+    public static MainBotEndpoint of(URI uri) {
+        String path = uri.getPath() == null ? "" : uri.getPath();
+        while (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+
+        if (path.endsWith("/slots/upcoming")) {
+            return UPCOMING_SLOTS;
+        }
+        if (path.endsWith("/slots/batch")) {
+            return SLOTS_BATCH;
+        }
+        if (path.endsWith("/slots")) {
+            return SLOTS_BY_DATE;
+        }
+        if (path.endsWith("/bookings")) {
+            return BOOKINGS;
+        }
+
+        int lastSlash = path.lastIndexOf('/');
+        if (lastSlash < 0 || !isNumber(path.substring(lastSlash + 1))) {
+            return OTHER;
+        }
+        String parent = path.substring(0, lastSlash);
+        if (parent.endsWith("/slots/expired")) {
+            return EXPIRED_SLOT_BY_ID;
+        }
+        if (parent.endsWith("/slots")) {
+            return SLOT_BY_ID;
+        }
+        return OTHER;
+    }
+
+    private static boolean isNumber(String s) {
+        if (s.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
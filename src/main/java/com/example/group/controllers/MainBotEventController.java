@@ -0,0 +1,57 @@
+package com.example.group.controllers;
+
+import com.example.group.dto.MainBotEventDTO;
+import com.example.group.service.MainBotEventHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Приём событий от основного бота (формат — {@link MainBotEventDTO}). Обработка асинхронная,
+ * поэтому основной бот сразу получает 202 и не ждёт обновления постов.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "mainbot.events.enabled", havingValue = "true")
+public class MainBotEventController {
+
+    private static final String TOKEN_HEADER = "X-Main-Bot-Token";
+
+    private final MainBotEventHandler handler;
+
+    @Value("${mainbot.events.secret:}")
+    private String secret;
+
+    @PostMapping("${mainbot.events.path:/internal/main-bot/events}")
+    public ResponseEntity<Void> onEvent(@RequestHeader(value = TOKEN_HEADER, required = false) String token,
+                                        @RequestBody MainBotEventDTO event) {
+        if (!isValidToken(token)) {
+            log.warn("Main bot events: rejected {} event with invalid token", event.getType());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        handler.accept(event);
+        return ResponseEntity.accepted().build();
+    }
+
+    private boolean isValidToken(String token) {
+        if (secret == null || secret.isBlank() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                secret.getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+}
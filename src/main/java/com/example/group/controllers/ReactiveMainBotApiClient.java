@@ -0,0 +1,27 @@
+package com.example.group.controllers;
+
+import com.example.group.dto.SlotDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Неблокирующие варианты вызовов основного бота. Ошибки не глотаются — решает вызывающий.
+ * Блокирующий {@link MainBotApiClient} поверх них тоже пробрасывает ошибки (null — только 404 по id);
+ * через {@code CoalescingMainBotApiClient} они становятся последним удачным ответом
+ * или {@link com.example.group.service.exception.MainBotUnavailableException}.
+ */
+public interface ReactiveMainBotApiClient {
+
+    Flux<SlotDTO> slotsForDate(LocalDate date);
+
+    Flux<SlotDTO> upcomingSlots();
+
+    /** Пустой, если слота нет */
+    Mono<SlotDTO> slotById(Long slotId);
+
+    Mono<SlotDTO> expiredSlotById(Long slotId);
+
+    Mono<Void> submitBooking(Long telegramUserId, Long slotId, String username, String firstName, String lastName);
+}
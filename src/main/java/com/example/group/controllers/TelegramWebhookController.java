@@ -0,0 +1,62 @@
+package com.example.group.controllers;
+
+import com.example.group.config.BotConfig;
+import com.example.group.service.TelegramBot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Точка входа для вебхука Telegram. Апдейт проходит тот же путь, что и при long polling:
+ * {@link TelegramBot#onUpdateReceived} только фильтрует и ставит его в очередь чата,
+ * поэтому Telegram сразу получает 200.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "bot.webhook.enabled", havingValue = "true")
+public class TelegramWebhookController {
+
+    private static final String SECRET_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+
+    private final TelegramBot bot;
+    private final BotConfig config;
+
+    @PostMapping("${bot.webhook.path:/telegram/webhook}")
+    public ResponseEntity<Void> onUpdate(@RequestHeader(value = SECRET_HEADER, required = false) String secret,
+                                         @RequestBody Update update) {
+        if (!isValidSecret(secret)) {
+            log.warn("Webhook: rejected update {} with invalid secret token", update.getUpdateId());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            bot.onUpdateReceived(update);
+        } catch (Exception e) {
+            // Telegram повторяет доставку при не-2xx, а повтор нам ничем не поможет
+            log.error("Webhook: failed to enqueue update {}", update.getUpdateId(), e);
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    private boolean isValidSecret(String secret) {
+        String expected = config.getWebhookSecret();
+        if (expected == null || expected.isBlank() || secret == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8),
+                secret.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+}
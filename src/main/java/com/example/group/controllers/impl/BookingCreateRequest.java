@@ -0,0 +1,4 @@
+package com.example.group.controllers.impl;
+
+/** Тело {@code POST /bookings} */
+record BookingCreateRequest(Long telegramUserId, Long slotId, String username, String firstName, String lastName) {}
@@ -0,0 +1,119 @@
+package com.example.group.controllers.impl;
+
+import com.example.group.service.exception.BookingBadRequestException;
+import com.example.group.service.exception.BookingConflictException;
+import com.example.group.service.exception.BookingNameConflictException;
+import com.example.group.service.exception.BookingNotFoundException;
+import com.example.group.service.exception.BookingSlotUnavailableException;
+import com.example.group.service.exception.BookingTimeRestrictionException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+/** Перевод ошибочного ответа {@code POST /bookings} в исключения бронирования — общий для обоих клиентов */
+final class BookingErrors {
+
+    private BookingErrors() {
+    }
+
+    static RuntimeException fromResponse(HttpStatusCode statusCode, String responseBody, Throwable cause) {
+        if (HttpStatus.CONFLICT.equals(statusCode)) {
+            if (isNameConflict(responseBody)) {
+                return new BookingNameConflictException(resolveNameConflictMessage(responseBody));
+            }
+            if (isSlotUnavailable(responseBody)) {
+                return new BookingSlotUnavailableException("⏳ Запис на зміну наразі недоступний.");
+            }
+            return new BookingConflictException("Booking already exists for slot");
+        }
+
+        if (HttpStatus.BAD_REQUEST.equals(statusCode) && isBookingDateRestricted(responseBody)) {
+            return new BookingTimeRestrictionException(resolveRestrictionMessage(responseBody));
+        }
+
+        if (HttpStatus.BAD_REQUEST.equals(statusCode)) {
+            return new BookingBadRequestException(resolveBadRequestMessage(responseBody));
+        }
+
+        if (HttpStatus.NOT_FOUND.equals(statusCode)) {
+            return new BookingNotFoundException(resolveNotFoundMessage(responseBody));
+        }
+
+        return new RuntimeException("Booking creation failed with status " + statusCode, cause);
+    }
+
+    /** Отказ основного бота по существу заявки (4xx) — сам бот при этом исправен */
+    static boolean isRejection(Throwable e) {
+        return e instanceof BookingConflictException
+                || e instanceof BookingNameConflictException
+                || e instanceof BookingSlotUnavailableException
+                || e instanceof BookingTimeRestrictionException
+                || e instanceof BookingBadRequestException
+                || e instanceof BookingNotFoundException;
+    }
+
+    private static boolean isBookingDateRestricted(String responseBody) {
+        if (responseBody == null) {
+            return false;
+        }
+
+        String normalized = responseBody.toLowerCase();
+        return normalized.contains("err.booking_date_restricted")
+                || normalized.contains("запис на вибрану дату недоступний за правилами запису");
+    }
+
+    private static boolean isNameConflict(String responseBody) {
+        if (responseBody == null) {
+            return false;
+        }
+        String normalized = responseBody.toLowerCase();
+        return normalized.contains("same first and last name")
+                || normalized.contains("user with the same first and last name already exists");
+    }
+
+    private static boolean isSlotUnavailable(String responseBody) {
+        if (responseBody == null) {
+            return false;
+        }
+        String normalized = responseBody.toLowerCase();
+        return normalized.contains("slot is no longer available")
+                || normalized.contains("slot not found or unavailable");
+    }
+
+    private static String resolveRestrictionMessage(String responseBody) {
+        String defaultMessage = "❌ Запис на вибрану дату недоступний за правилами запису.";
+
+        if (responseBody == null || responseBody.isBlank()) {
+            return defaultMessage;
+        }
+
+        if ("err.booking_date_restricted".equalsIgnoreCase(responseBody.trim())) {
+            return defaultMessage;
+        }
+
+        return responseBody;
+    }
+
+    private static String resolveNameConflictMessage(String responseBody) {
+        String defaultMessage = "❌ Користувач з таким ім'ям та прізвищем вже існує.";
+        if (responseBody == null || responseBody.isBlank()) {
+            return defaultMessage;
+        }
+        return responseBody;
+    }
+
+    private static String resolveBadRequestMessage(String responseBody) {
+        String defaultMessage = "❌ Некоректні дані для запису.";
+        if (responseBody == null || responseBody.isBlank()) {
+            return defaultMessage;
+        }
+        return responseBody;
+    }
+
+    private static String resolveNotFoundMessage(String responseBody) {
+        String defaultMessage = "❌ Зміну не знайдено або вона недоступна.";
+        if (responseBody == null || responseBody.isBlank()) {
+            return defaultMessage;
+        }
+        return responseBody;
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.group.controllers.impl;
+
+import com.example.group.controllers.MainBotApiClient;
+import com.example.group.controllers.MainBotEndpoint;
+import com.example.group.dto.SlotBatchDTO;
+import com.example.group.dto.SlotDTO;
+import com.example.group.service.exception.MainBotUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Склейка одинаковых чтений: пока запрос к основному боту в полёте, такие же запросы
+ * (утренняя и вечерняя рассылки по тем же датам, повторный {@code getSlotById} при записи)
+ * ждут его и получают тот же результат. Опционально ответ ещё {@code mainbot.api.coalesce.fresh-ms}
+ * считается свежим и отдаётся без запроса.
+ * <p>
+ * Оборачивает транспортный клиент ({@link #TRANSPORT}); запись на слот и батч по id не склеиваются.
+ * Списки отдаются неизменяемыми — их делят несколько вызывающих.
+ * <p>
+ * На каждый эндпоинт стоит {@link MainBotCircuitBreaker}. При ошибке или открытом автомате чтение
+ * отдаёт последний удачный ответ, а если его нет — падает с {@link MainBotUnavailableException}:
+ * пустой список или null означали бы «слотов нет», а не «основной бот лежит».
+ * Такое чтение отмечается в {@link #lastReadWasStale()}, батч по id — ещё и в {@link SlotBatchDTO#isStale()}.
+ * Запись на слот при открытом автомате сразу падает с {@link MainBotUnavailableException}.
+ */
+@Slf4j
+@Primary
+@Service
+public class CoalescingMainBotApiClient implements MainBotApiClient {
+
+    /** Квалификатор клиента, который ходит по HTTP */
+    public static final String TRANSPORT = "mainBotTransport";
+
+    private static final int FRESH_PRUNE_THRESHOLD = 256;
+    private static final int LAST_GOOD_LIMIT = 4096;
+
+    private final MainBotApiClient delegate;
+    private final long freshNanos;
+    private final Map<Key, CompletableFuture<Read<?>>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Key, Fresh> fresh = new ConcurrentHashMap<>();
+    private final ThreadLocal<Boolean> lastReadStale = ThreadLocal.withInitial(() -> false);
+    private final Map<MainBotEndpoint, Meters> meters = new EnumMap<>(MainBotEndpoint.class);
+    private final MainBotCircuitBreaker breaker;
+
+    /** Последние удачные ответы — на время недоступности основного бота */
+    private final Map<Key, Object> lastGood = new ConcurrentHashMap<>();
+    private final Map<Long, SlotDTO> lastGoodActive = new ConcurrentHashMap<>();
+    private final Map<Long, SlotDTO> lastGoodExpired = new ConcurrentHashMap<>();
+
+    public CoalescingMainBotApiClient(@Qualifier(TRANSPORT) MainBotApiClient delegate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${mainbot.api.coalesce.fresh-ms:0}") long freshMs,
+                                      @Value("${mainbot.api.breaker.failure-threshold:5}") int failureThreshold,
+                                      @Value("${mainbot.api.breaker.open-ms:30000}") long openMs) {
+        this.delegate = delegate;
+        this.freshNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, freshMs));
+        this.breaker = new MainBotCircuitBreaker(meterRegistry, failureThreshold, Duration.ofMillis(openMs));
+        for (MainBotEndpoint endpoint : MainBotEndpoint.values()) {
+            meters.put(endpoint, new Meters(
+                    counter(meterRegistry, endpoint, "call"),
+                    counter(meterRegistry, endpoint, "joined"),
+                    counter(meterRegistry, endpoint, "fresh"),
+                    Counter.builder("mainbot.api.stale")
+                            .description("Main bot reads answered from the last known good response")
+                            .tag("endpoint", endpoint.key())
+                            .register(meterRegistry)));
+        }
+    }
+
+    @Override
+    public List<SlotDTO> getSlotsForDate(LocalDate date) {
+        return coalesce(MainBotEndpoint.SLOTS_BY_DATE, date,
+                () -> Collections.unmodifiableList(delegate.getSlotsForDate(date)));
+    }
+
+    @Override
+    public List<SlotDTO> getSlotsForDates(Collection<LocalDate> dates) {
+        // планировщики просят один и тот же набор дат, поэтому ключ — весь набор
+        List<LocalDate> key = List.copyOf(dates);
+        return coalesce(MainBotEndpoint.SLOTS_BY_DATE, key,
+                () -> Collections.unmodifiableList(delegate.getSlotsForDates(key)));
+    }
+
+    @Override
+    public List<SlotDTO> getUpcomingSlots() {
+        return coalesce(MainBotEndpoint.UPCOMING_SLOTS, null,
+                () -> Collections.unmodifiableList(delegate.getUpcomingSlots()));
+    }
+
+    @Override
+    public SlotDTO getSlotById(Long slotId) {
+        return coalesce(MainBotEndpoint.SLOT_BY_ID, slotId, () -> delegate.getSlotById(slotId));
+    }
+
+    @Override
+    public SlotDTO getExpiredSlotById(Long slotId) {
+        return coalesce(MainBotEndpoint.EXPIRED_SLOT_BY_ID, slotId, () -> delegate.getExpiredSlotById(slotId));
+    }
+
+    @Override
+    public SlotBatchDTO getSlotsByIds(Collection<Long> slotIds) {
+        MainBotEndpoint endpoint = MainBotEndpoint.SLOTS_BATCH;
+        if (breaker.tryAcquire(endpoint)) {
+            try {
+                SlotBatchDTO batch = delegate.getSlotsByIds(slotIds);
+                breaker.onSuccess(endpoint);
+                rememberBatch(slotIds, batch);
+                lastReadStale.set(false);
+                return batch;
+            } catch (RuntimeException e) {
+                breaker.onFailure(endpoint);
+                log.error("Failed to load {} slots by id: {}", slotIds.size(), e.getMessage());
+            }
+        }
+
+        meters.get(endpoint).stale().increment();
+        lastReadStale.set(true);
+        SlotBatchDTO stale = new SlotBatchDTO();
+        stale.setStale(true);
+        for (Long slotId : slotIds) {
+            if (slotId == null) {
+                continue;
+            }
+            Optional.ofNullable(lastGoodActive.get(slotId)).ifPresent(stale.getActive()::add);
+            Optional.ofNullable(lastGoodExpired.get(slotId)).ifPresent(stale.getExpired()::add);
+        }
+        return stale;
+    }
+
+    @Override
+    public void createBooking(Long telegramUserId, Long slotId, String username, String firstName, String lastName) {
+        MainBotEndpoint endpoint = MainBotEndpoint.BOOKINGS;
+        if (!breaker.tryAcquire(endpoint)) {
+            throw new MainBotUnavailableException("Main bot is unavailable, booking rejected without a request");
+        }
+        try {
+            delegate.createBooking(telegramUserId, slotId, username, firstName, lastName);
+            breaker.onSuccess(endpoint);
+        } catch (RuntimeException e) {
+            if (BookingErrors.isRejection(e)) {
+                breaker.onSuccess(endpoint);
+            } else {
+                breaker.onFailure(endpoint);
+            }
+            throw e;
+        } finally {
+            fresh.clear(); // после записи счётчики мест изменились
+        }
+    }
+
+    @Override
+    public boolean lastReadWasStale() {
+        return lastReadStale.get();
+    }
+
+    private <T> T coalesce(MainBotEndpoint endpoint, Object arg, Supplier<T> call) {
+        Key key = new Key(endpoint, arg);
+        Read<T> read = coalesce(key, () -> guarded(key, call));
+        lastReadStale.set(read.stale());
+        return read.value();
+    }
+
+    /** Вызов через автомат; при ошибке — последний удачный ответ, без него — {@link MainBotUnavailableException} */
+    @SuppressWarnings("unchecked")
+    private <T> Read<T> guarded(Key key, Supplier<T> call) {
+        MainBotEndpoint endpoint = key.endpoint();
+        if (breaker.tryAcquire(endpoint)) {
+            try {
+                T value = call.get();
+                breaker.onSuccess(endpoint);
+                if (lastGood.size() >= LAST_GOOD_LIMIT && !lastGood.containsKey(key)) {
+                    lastGood.clear();
+                }
+                if (value != null) {
+                    lastGood.put(key, value);
+                } else {
+                    lastGood.remove(key);
+                }
+                return new Read<>(value, false);
+            } catch (RuntimeException e) {
+                breaker.onFailure(endpoint);
+                log.error("Main bot {} call failed for {}: {}", endpoint.key(), key.arg(), e.getMessage());
+            }
+        }
+
+        Object previous = lastGood.get(key);
+        if (previous == null) {
+            throw new MainBotUnavailableException("Main bot " + endpoint.key() + " is unavailable and nothing is cached for " + key.arg());
+        }
+        meters.get(endpoint).stale().increment();
+        return new Read<>((T) previous, true);
+    }
+
+    private void rememberBatch(Collection<Long> slotIds, SlotBatchDTO batch) {
+        if (lastGoodActive.size() + lastGoodExpired.size() >= LAST_GOOD_LIMIT) {
+            lastGoodActive.clear();
+            lastGoodExpired.clear();
+        }
+        Map<Long, SlotDTO> active = batch.activeById();
+        Map<Long, SlotDTO> expired = batch.expiredById();
+        for (Long slotId : slotIds) {
+            if (slotId == null) {
+                continue;
+            }
+            put(lastGoodActive, slotId, active.get(slotId));
+            put(lastGoodExpired, slotId, expired.get(slotId));
+        }
+    }
+
+    private static void put(Map<Long, SlotDTO> target, Long slotId, SlotDTO slot) {
+        if (slot != null) {
+            target.put(slotId, slot);
+        } else {
+            target.remove(slotId);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Read<T> coalesce(Key key, Supplier<Read<T>> call) {
+        MainBotEndpoint endpoint = key.endpoint();
+        Meters counters = meters.get(endpoint);
+
+        if (freshNanos > 0) {
+            Fresh recent = fresh.get(key);
+            if (recent != null && System.nanoTime() - recent.at() < freshNanos) {
+                counters.fresh().increment();
+                return (Read<T>) recent.value();
+            }
+        }
+
+        CompletableFuture<Read<?>> mine = new CompletableFuture<>();
+        CompletableFuture<Read<?>> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            counters.joined().increment();
+            return (Read<T>) await(running);
+        }
+
+        counters.call().increment();
+        try {
+            Read<T> value = call.get();
+            remember(key, value); // до снятия из inFlight, чтобы следующий вызов увидел свежий ответ
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private void remember(Key key, Read<?> value) {
+        // устаревший ответ свежим не считается: следующий вызов снова пробует основной бот
+        if (freshNanos == 0 || value.stale()) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (fresh.size() >= FRESH_PRUNE_THRESHOLD) {
+            fresh.values().removeIf(entry -> now - entry.at() >= freshNanos);
+        }
+        fresh.put(key, new Fresh(value, now));
+    }
+
+    private static Read<?> await(CompletableFuture<Read<?>> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, MainBotEndpoint endpoint, String result) {
+        return Counter.builder("mainbot.api.coalesce")
+                .description("Main bot reads that went upstream, joined an in-flight call or were served fresh")
+                .tag("endpoint", endpoint.key())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Key(MainBotEndpoint endpoint, Object arg) {}
+
+    /** @param stale ответ взят из последнего удачного, основной бот не ответил */
+    private record Read<T>(T value, boolean stale) {}
+
+    private record Fresh(Read<?> value, long at) {}
+
+    private record Meters(Counter call, Counter joined, Counter fresh, Counter stale) {}
+}
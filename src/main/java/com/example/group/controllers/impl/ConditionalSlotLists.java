@@ -0,0 +1,95 @@
+package com.example.group.controllers.impl;
+
+import com.example.group.controllers.MainBotEndpoint;
+import com.example.group.dto.SlotDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Условные GET для списков слотов ({@code /slots?date=}, {@code /slots/upcoming}): валидаторы
+ * последнего ответа хранятся по URL, и при 304 отдаётся уже разобранный список. Общий для обоих клиентов.
+ * <p>
+ * Контракт основного бота:
+ * <ul>
+ *     <li>ответ 200 содержит {@code ETag} (можно слабый, например версия расписания на дату)
+ *     и/или {@code Last-Modified};</li>
+ *     <li>валидатор меняется при любом изменении списка, включая {@code bookings} и статусы;</li>
+ *     <li>на {@code If-None-Match} / {@code If-Modified-Since} с актуальным валидатором — 304 без тела;</li>
+ *     <li>без валидаторов в ответе всё работает как раньше: каждый раз 200 с полным списком.</li>
+ * </ul>
+ */
+final class ConditionalSlotLists {
+
+    /** URL-ы с датами со временем устаревают, поэтому при переполнении всё сбрасывается */
+    private static final int MAX_ENTRIES = 64;
+
+    private final Map<String, Cached> entries = new ConcurrentHashMap<>();
+    private final Map<MainBotEndpoint, Counter> notModified = new EnumMap<>(MainBotEndpoint.class);
+    private final Map<MainBotEndpoint, Counter> modified = new EnumMap<>(MainBotEndpoint.class);
+
+    ConditionalSlotLists(MeterRegistry meterRegistry) {
+        for (MainBotEndpoint endpoint : List.of(MainBotEndpoint.SLOTS_BY_DATE, MainBotEndpoint.UPCOMING_SLOTS)) {
+            notModified.put(endpoint, counter(meterRegistry, endpoint, "not-modified"));
+            modified.put(endpoint, counter(meterRegistry, endpoint, "modified"));
+        }
+    }
+
+    /** Последний ответ по URL или null */
+    Cached lookup(String url) {
+        return entries.get(url);
+    }
+
+    static void addConditions(Cached cached, HttpHeaders headers) {
+        if (cached == null) {
+            return;
+        }
+        if (cached.etag() != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, cached.etag());
+        }
+        if (cached.lastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+        }
+    }
+
+    /** 304: список не изменился */
+    List<SlotDTO> notModified(MainBotEndpoint endpoint, Cached cached) {
+        notModified.get(endpoint).increment();
+        return cached.slots();
+    }
+
+    /** 200: запоминает валидаторы ответа (если они есть) вместе с разобранным списком */
+    List<SlotDTO> modified(MainBotEndpoint endpoint, String url, HttpHeaders responseHeaders, List<SlotDTO> slots) {
+        modified.get(endpoint).increment();
+        List<SlotDTO> result = Collections.unmodifiableList(slots);
+
+        String etag = responseHeaders.getETag();
+        String lastModified = responseHeaders.getFirst(HttpHeaders.LAST_MODIFIED);
+        if (etag == null && lastModified == null) {
+            entries.remove(url);
+            return result;
+        }
+
+        if (entries.size() >= MAX_ENTRIES && !entries.containsKey(url)) {
+            entries.clear();
+        }
+        entries.put(url, new Cached(etag, lastModified, result));
+        return result;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, MainBotEndpoint endpoint, String result) {
+        return Counter.builder("mainbot.api.conditional")
+                .description("Conditional slot list requests answered with or without a body")
+                .tag("endpoint", endpoint.key())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    record Cached(String etag, String lastModified, List<SlotDTO> slots) {}
+}
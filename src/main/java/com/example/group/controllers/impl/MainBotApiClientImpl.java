@@ -1,66 +1,85 @@
 package com.example.group.controllers.impl;
 
 import com.example.group.controllers.MainBotApiClient;
+import com.example.group.controllers.MainBotEndpoint;
+import com.example.group.dto.SlotBatchDTO;
 import com.example.group.dto.SlotDTO;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
 
 import java.time.LocalDate;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
-import com.example.group.service.exception.BookingBadRequestException;
-import com.example.group.service.exception.BookingConflictException;
-import com.example.group.service.exception.BookingNameConflictException;
-import com.example.group.service.exception.BookingNotFoundException;
-import com.example.group.service.exception.BookingSlotUnavailableException;
-import com.example.group.service.exception.BookingTimeRestrictionException;
-
+/**
+ * Транспорт на RestTemplate: ошибки основного бота пробрасываются (404 по id — null),
+ * деградацию и склейку берёт на себя {@link CoalescingMainBotApiClient}.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
+@Qualifier(CoalescingMainBotApiClient.TRANSPORT)
+@ConditionalOnProperty(name = "mainbot.api.client", havingValue = "rest", matchIfMissing = true)
 public class MainBotApiClientImpl implements MainBotApiClient {
 
     private final RestTemplate restTemplate;
+    private final SlotBatchLoader batchLoader;
+    private final ConditionalSlotLists slotLists;
+    private final SlotListDecoder slotListDecoder;
 
     @Value("${mainbot.api.base-url}")
     private String baseUrl;
 
+    public MainBotApiClientImpl(@Qualifier("mainBotRestTemplate") RestTemplate restTemplate,
+                                MeterRegistry meterRegistry,
+                                ObjectMapper objectMapper,
+                                @Value("${mainbot.api.batch-size:100}") int batchSize) {
+        this.restTemplate = restTemplate; // пул соединений и таймауты — MainBotHttpConfig
+        this.batchLoader = new SlotBatchLoader(this::fetchBatch, this, batchSize);
+        this.slotLists = new ConditionalSlotLists(meterRegistry);
+        this.slotListDecoder = new SlotListDecoder(objectMapper);
+    }
+
     @Override
     public List<SlotDTO> getSlotsForDate(LocalDate date) {
-        try {
-            String url = baseUrl + "/slots?date=" + date;
-            ResponseEntity<SlotDTO[]> response = restTemplate.getForEntity(url, SlotDTO[].class);
-            SlotDTO[] body = response.getBody();
-            return body != null ? Arrays.asList(body) : Collections.emptyList();
-        } catch (Exception e) {
-            log.error("Failed to load slots for date {}: {}", date, e.getMessage());
-            return Collections.emptyList();
-        }
+        return getSlotList(MainBotEndpoint.SLOTS_BY_DATE, baseUrl + "/slots?date=" + date);
     }
 
     @Override
     public List<SlotDTO> getUpcomingSlots() {
-        try {
-            String url = baseUrl + "/slots/upcoming";
-            ResponseEntity<SlotDTO[]> response = restTemplate.getForEntity(url, SlotDTO[].class);
-            SlotDTO[] body = response.getBody();
-            return body != null ? Arrays.asList(body) : Collections.emptyList();
-        } catch (Exception e) {
-            log.error("Failed to load upcoming slots: {}", e.getMessage());
-            return Collections.emptyList();
+        return getSlotList(MainBotEndpoint.UPCOMING_SLOTS, baseUrl + "/slots/upcoming");
+    }
+
+    /** Условный GET: при 304 возвращается список из прошлого ответа (см. {@link ConditionalSlotLists}) */
+    private List<SlotDTO> getSlotList(MainBotEndpoint endpoint, String url) {
+        ConditionalSlotLists.Cached cached = slotLists.lookup(url);
+        HttpHeaders headers = new HttpHeaders();
+        ConditionalSlotLists.addConditions(cached, headers);
+
+        ResponseEntity<byte[]> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        if (HttpStatus.NOT_MODIFIED.equals(response.getStatusCode())) {
+            if (cached == null) {
+                throw new IllegalStateException("304 Not Modified for unconditional request " + url);
+            }
+            return slotLists.notModified(endpoint, cached);
         }
+
+        return slotLists.modified(endpoint, url, response.getHeaders(), slotListDecoder.decode(response.getBody()));
     }
 
     @Override
@@ -68,8 +87,7 @@ public class MainBotApiClientImpl implements MainBotApiClient {
         try {
             String url = baseUrl + "/slots/" + slotId;
             return restTemplate.getForObject(url, SlotDTO.class);
-        } catch (Exception e) {
-            log.error("Failed to load slot {}: {}", slotId, e.getMessage());
+        } catch (HttpClientErrorException.NotFound e) {
             return null;
         }
     }
@@ -79,12 +97,29 @@ public class MainBotApiClientImpl implements MainBotApiClient {
         try {
             String url = baseUrl + "/slots/expired/" + slotId;
             return restTemplate.getForObject(url, SlotDTO.class);
-        } catch (Exception e) {
-            log.info("Failed to load expired slot {}: {}", slotId, e.getMessage());
+        } catch (HttpClientErrorException.NotFound e) {
             return null;
         }
     }
 
+    @Override
+    public SlotBatchDTO getSlotsByIds(Collection<Long> slotIds) {
+        return batchLoader.load(slotIds);
+    }
+
+    private Optional<SlotBatchDTO> fetchBatch(List<Long> slotIds) {
+        String ids = slotIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try {
+            return Optional.ofNullable(restTemplate.getForObject(baseUrl + "/slots/batch?ids=" + ids, SlotBatchDTO.class))
+                    .or(() -> Optional.of(new SlotBatchDTO()));
+        } catch (HttpClientErrorException e) {
+            if (HttpStatus.NOT_FOUND.equals(e.getStatusCode()) || HttpStatus.METHOD_NOT_ALLOWED.equals(e.getStatusCode())) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
     @Override
     public void createBooking(Long telegramUserId, Long slotId, String username, String firstName, String lastName) {
         try {
@@ -101,102 +136,11 @@ public class MainBotApiClientImpl implements MainBotApiClient {
             String responseBody = e.getResponseBodyAsString();
             log.error("Failed to create booking for user={}, slot={}: {} : {}", telegramUserId, slotId,
                     e.getStatusCode(), responseBody);
-
-            if (HttpStatus.CONFLICT.equals(e.getStatusCode())) {
-                if (isNameConflict(responseBody)) {
-                    throw new BookingNameConflictException(resolveNameConflictMessage(responseBody));
-                }
-                if (isSlotUnavailable(responseBody)) {
-                    throw new BookingSlotUnavailableException("⏳ Запис на зміну наразі недоступний.");
-                }
-                throw new BookingConflictException("Booking already exists for slot");
-            }
-
-            if (HttpStatus.BAD_REQUEST.equals(e.getStatusCode()) && isBookingDateRestricted(responseBody)) {
-                throw new BookingTimeRestrictionException(resolveRestrictionMessage(responseBody));
-            }
-
-            if (HttpStatus.BAD_REQUEST.equals(e.getStatusCode())) {
-                throw new BookingBadRequestException(resolveBadRequestMessage(responseBody));
-            }
-
-            if (HttpStatus.NOT_FOUND.equals(e.getStatusCode())) {
-                throw new BookingNotFoundException(resolveNotFoundMessage(responseBody));
-            }
-
-            throw new RuntimeException("Booking creation failed with status " + e.getStatusCode(), e);
+            throw BookingErrors.fromResponse(e.getStatusCode(), responseBody, e);
         } catch (Exception e) {
             log.error("Failed to create booking for user={}, slot={}: {}",
                     telegramUserId, slotId, e.getMessage());
             throw new RuntimeException("Booking creation failed", e);
         }
     }
-
-    private boolean isBookingDateRestricted(String responseBody) {
-        if (responseBody == null) {
-            return false;
-        }
-
-        String normalized = responseBody.toLowerCase();
-        return normalized.contains("err.booking_date_restricted")
-                || normalized.contains("запис на вибрану дату недоступний за правилами запису");
-    }
-
-    private boolean isNameConflict(String responseBody) {
-        if (responseBody == null) {
-            return false;
-        }
-        String normalized = responseBody.toLowerCase();
-        return normalized.contains("same first and last name")
-                || normalized.contains("user with the same first and last name already exists");
-    }
-
-    private boolean isSlotUnavailable(String responseBody) {
-        if (responseBody == null) {
-            return false;
-        }
-        String normalized = responseBody.toLowerCase();
-        return normalized.contains("slot is no longer available")
-                || normalized.contains("slot not found or unavailable");
-    }
-
-    private String resolveRestrictionMessage(String responseBody) {
-        String defaultMessage = "❌ Запис на вибрану дату недоступний за правилами запису.";
-
-        if (responseBody == null || responseBody.isBlank()) {
-            return defaultMessage;
-        }
-
-        if ("err.booking_date_restricted".equalsIgnoreCase(responseBody.trim())) {
-            return defaultMessage;
-        }
-
-        return responseBody;
-    }
-
-    private String resolveNameConflictMessage(String responseBody) {
-        String defaultMessage = "❌ Користувач з таким ім'ям та прізвищем вже існує.";
-        if (responseBody == null || responseBody.isBlank()) {
-            return defaultMessage;
-        }
-        return responseBody;
-    }
-
-    private String resolveBadRequestMessage(String responseBody) {
-        String defaultMessage = "❌ Некоректні дані для запису.";
-        if (responseBody == null || responseBody.isBlank()) {
-            return defaultMessage;
-        }
-        return responseBody;
-    }
-
-    private String resolveNotFoundMessage(String responseBody) {
-        String defaultMessage = "❌ Зміну не знайдено або вона недоступна.";
-        if (responseBody == null || responseBody.isBlank()) {
-            return defaultMessage;
-        }
-        return responseBody;
-    }
-
-    private record BookingCreateRequest(Long telegramUserId, Long slotId, String username, String firstName, String lastName) {}
 }
@@ -0,0 +1,104 @@
+package com.example.group.controllers.impl;
+
+import com.example.group.controllers.MainBotEndpoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Автомат на каждый эндпоинт основного бота: после {@code failureThreshold} ошибок подряд
+ * эндпоинт закрывается на {@code openFor} — вызовы сразу отклоняются, без ожидания таймаута.
+ * Потом пропускается один пробный вызов: успех закрывает автомат, ошибка открывает снова.
+ */
+@Slf4j
+final class MainBotCircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final Map<MainBotEndpoint, Circuit> circuits = new EnumMap<>(MainBotEndpoint.class);
+    private final int failureThreshold;
+    private final long openForMs;
+
+    MainBotCircuitBreaker(MeterRegistry meterRegistry, int failureThreshold, Duration openFor) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openForMs = openFor.toMillis();
+        for (MainBotEndpoint endpoint : MainBotEndpoint.values()) {
+            Circuit circuit = new Circuit(Counter.builder("mainbot.api.circuit.rejected")
+                    .description("Main bot calls rejected without a request because the circuit was open")
+                    .tag("endpoint", endpoint.key())
+                    .register(meterRegistry));
+            circuits.put(endpoint, circuit);
+            Gauge.builder("mainbot.api.circuit.state", circuit, c -> c.state().ordinal())
+                    .description("Circuit state: 0 closed, 1 open, 2 half-open")
+                    .tag("endpoint", endpoint.key())
+                    .register(meterRegistry);
+        }
+    }
+
+    /** Можно ли сейчас идти в основной бот; false — отказать сразу */
+    boolean tryAcquire(MainBotEndpoint endpoint) {
+        Circuit circuit = circuits.get(endpoint);
+        boolean allowed = switch (circuit.state()) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> circuit.trial.compareAndSet(false, true);
+        };
+        if (!allowed) {
+            circuit.rejected.increment();
+        }
+        return allowed;
+    }
+
+    void onSuccess(MainBotEndpoint endpoint) {
+        Circuit circuit = circuits.get(endpoint);
+        circuit.failures.set(0);
+        if (circuit.openUntil != 0) {
+            circuit.openUntil = 0;
+            log.info("Main bot {} is back, closing circuit", endpoint.key());
+        }
+        circuit.trial.set(false);
+    }
+
+    void onFailure(MainBotEndpoint endpoint) {
+        Circuit circuit = circuits.get(endpoint);
+        boolean trialFailed = circuit.trial.getAndSet(false);
+        if (trialFailed || circuit.failures.incrementAndGet() >= failureThreshold) {
+            if (circuit.openUntil == 0) {
+                log.warn("Main bot {} failed {} times in a row, opening circuit for {} ms",
+                        endpoint.key(), circuit.failures.get(), openForMs);
+            }
+            circuit.openUntil = System.currentTimeMillis() + openForMs;
+        }
+    }
+
+    State state(MainBotEndpoint endpoint) {
+        return circuits.get(endpoint).state();
+    }
+
+    private static final class Circuit {
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicBoolean trial = new AtomicBoolean();
+        private final Counter rejected;
+        /** 0 — закрыт */
+        private volatile long openUntil;
+
+        private Circuit(Counter rejected) {
+            this.rejected = rejected;
+        }
+
+        private State state() {
+            long until = openUntil;
+            if (until == 0) {
+                return State.CLOSED;
+            }
+            return System.currentTimeMillis() < until ? State.OPEN : State.HALF_OPEN;
+        }
+    }
+}
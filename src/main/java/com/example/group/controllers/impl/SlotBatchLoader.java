@@ -0,0 +1,99 @@
+package com.example.group.controllers.impl;
+
+import com.example.group.controllers.MainBotApiClient;
+import com.example.group.dto.SlotBatchDTO;
+import com.example.group.dto.SlotDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * {@link MainBotApiClient#getSlotsByIds} поверх {@code GET /slots/batch}: id режутся на чанки,
+ * а если основной бот эндпоинта не знает (404/405) — запросы идут по одному слоту, как раньше,
+ * и батч пробуется снова не раньше чем через час. Ошибки пробрасываются: отсутствие слота
+ * в результате должно значить только «удалён». Общий для обоих клиентов.
+ */
+@Slf4j
+final class SlotBatchLoader {
+
+    private static final Duration UNSUPPORTED_RETRY = Duration.ofHours(1);
+
+    /** Пустой ответ — эндпоинта нет; исключение — ошибка основного бота */
+    private final Function<List<Long>, Optional<SlotBatchDTO>> batchCall;
+    private final MainBotApiClient api;
+    private final int chunkSize;
+
+    private volatile Instant unsupportedAt;
+
+    SlotBatchLoader(Function<List<Long>, Optional<SlotBatchDTO>> batchCall, MainBotApiClient api, int chunkSize) {
+        this.batchCall = batchCall;
+        this.api = api;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    SlotBatchDTO load(Collection<Long> slotIds) {
+        List<Long> ids = slotIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        SlotBatchDTO result = new SlotBatchDTO();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            SlotBatchDTO part = batchSupported() ? loadChunk(chunk) : loadIndividually(chunk);
+            result.getActive().addAll(part.activeById().values());
+            result.getExpired().addAll(part.expiredById().values());
+        }
+        return result;
+    }
+
+    private SlotBatchDTO loadChunk(List<Long> chunk) {
+        // ошибка пробрасывается: если бот лежит, поштучные запросы только умножат таймауты
+        Optional<SlotBatchDTO> response = batchCall.apply(chunk);
+        if (response.isPresent()) {
+            return response.get();
+        }
+        log.info("Main bot API has no /slots/batch, loading slots one by one");
+        unsupportedAt = Instant.now();
+        return loadIndividually(chunk);
+    }
+
+    /** Прежний порядок запросов: слот, затем список ближайших (один на чанк), затем архив */
+    private SlotBatchDTO loadIndividually(List<Long> chunk) {
+        SlotBatchDTO result = new SlotBatchDTO();
+        List<SlotDTO> upcoming = null;
+        for (Long slotId : chunk) {
+            SlotDTO slot = api.getSlotById(slotId);
+            if (slot == null) {
+                if (upcoming == null) {
+                    upcoming = api.getUpcomingSlots();
+                }
+                slot = upcoming.stream()
+                        .filter(it -> slotId.equals(it.getId()))
+                        .findFirst()
+                        .orElse(null);
+            }
+
+            if (slot != null) {
+                result.getActive().add(slot);
+                continue;
+            }
+            SlotDTO expired = api.getExpiredSlotById(slotId);
+            if (expired != null) {
+                result.getExpired().add(expired);
+            }
+        }
+        return result;
+    }
+
+    private boolean batchSupported() {
+        Instant since = unsupportedAt;
+        return since == null || Duration.between(since, Instant.now()).compareTo(UNSUPPORTED_RETRY) > 0;
+    }
+}
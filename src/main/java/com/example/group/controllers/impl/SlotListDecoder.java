@@ -0,0 +1,277 @@
+package com.example.group.controllers.impl;
+
+import com.example.group.dto.LazyBookingList;
+import com.example.group.dto.SlotBookingDTO;
+import com.example.group.dto.SlotDTO;
+import com.example.group.model.Booking;
+import com.example.group.service.util.SlotBookings;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Потоковый разбор {@code SlotDTO[]} из тела ответа: слоты собираются по токенам, названия мест
+ * и городов переиспользуются между ответами, а заявки остаются сырым JSON ({@link LazyBookingList}) —
+ * для счётчиков и отпечатков из {@link SlotBookings} объекты заявок не создаются вовсе.
+ * Общий для обоих клиентов.
+ */
+final class SlotListDecoder {
+
+    private static final int INTERNED_LIMIT = 4096;
+    private static final SlotDTO.SlotStatus[] SLOT_STATUSES = SlotDTO.SlotStatus.values();
+    private static final Booking.BookingStatus[] BOOKING_STATUSES = Booking.BookingStatus.values();
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader bookingsReader;
+    private final Map<String, String> interned = new ConcurrentHashMap<>();
+
+    SlotListDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.bookingsReader = objectMapper.readerFor(SlotBookingDTO[].class);
+    }
+
+    List<SlotDTO> decode(byte[] json) {
+        if (json == null || json.length == 0) {
+            return new ArrayList<>();
+        }
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.VALUE_NULL) {
+                return new ArrayList<>();
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of slots, got " + token);
+            }
+
+            List<SlotDTO> slots = new ArrayList<>();
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                slots.add(token == JsonToken.VALUE_NULL ? null : readSlot(parser, json));
+            }
+            return slots;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode slot list", e);
+        }
+    }
+
+    private SlotDTO readSlot(JsonParser parser, byte[] json) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a slot object, got " + parser.currentToken());
+        }
+
+        SlotDTO slot = new SlotDTO();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> slot.setId(value == JsonToken.VALUE_NULL ? null : parser.getValueAsLong());
+                case "placeName" -> slot.setPlaceName(intern(parser.getValueAsString()));
+                case "cityName" -> slot.setCityName(intern(parser.getValueAsString()));
+                case "start" -> slot.setStart(readDateTime(parser));
+                case "end" -> slot.setEnd(readDateTime(parser));
+                case "capacity" -> slot.setCapacity(parser.getValueAsInt());
+                case "bookedCount" -> slot.setBookedCount(parser.getValueAsInt());
+                case "innRequired" -> slot.setInnRequired(parser.getValueAsBoolean());
+                case "status" -> slot.setStatus(readSlotStatus(parser));
+                case "bookings" -> slot.setBookings(readBookings(parser, json));
+                default -> parser.skipChildren();
+            }
+        }
+        return slot;
+    }
+
+    /** Проходит массив заявок, считая активные и их отпечаток, и запоминает его байты */
+    private List<SlotBookingDTO> readBookings(JsonParser parser, byte[] json) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected an array of bookings, got " + parser.currentToken());
+        }
+
+        int from = (int) parser.currentTokenLocation().getByteOffset();
+        int size = 0;
+        int active = 0;
+        long fingerprint = SlotBookings.EMPTY_FINGERPRINT;
+
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            size++;
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            // строки заявки не создаются: статус и хэши имён берутся прямо из буфера парсера
+            Booking.BookingStatus status = null;
+            int firstNameHash = 0;
+            int lastNameHash = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "status" -> status = readBookingStatus(parser);
+                    case "firstName" -> firstNameHash = textHash(parser);
+                    case "lastName" -> lastNameHash = textHash(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (SlotBookings.isActive(status)) {
+                active++;
+                fingerprint = SlotBookings.mix(fingerprint, status, firstNameHash, lastNameHash);
+            }
+        }
+
+        if (size == 0) {
+            return new ArrayList<>();
+        }
+        int to = (int) parser.currentTokenLocation().getByteOffset() + 1;
+        return new LazyBookingList(Arrays.copyOfRange(json, from, to), size, active, fingerprint, this::parseBookings);
+    }
+
+    /** ISO-строка разбирается прямо из буфера парсера, остальные формы — настройками ObjectMapper */
+    private static LocalDateTime readDateTime(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            LocalDateTime parsed = parseIsoDateTime(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            if (parsed != null) {
+                return parsed;
+            }
+        }
+        return parser.readValueAs(LocalDateTime.class);
+    }
+
+    /**
+     * {@code yyyy-MM-ddTHH:mm[:ss[.fraction]]} без промежуточных объектов форматтера;
+     * null — строка в другом виде (или некорректна), пусть её разбирает JavaTimeModule.
+     */
+    static LocalDateTime parseIsoDateTime(char[] c, int offset, int length) {
+        if (length < 16 || c[offset + 4] != '-' || c[offset + 7] != '-' || c[offset + 10] != 'T' || c[offset + 13] != ':') {
+            return null;
+        }
+        int year = digits(c, offset, 4);
+        int month = digits(c, offset + 5, 2);
+        int day = digits(c, offset + 8, 2);
+        int hour = digits(c, offset + 11, 2);
+        int minute = digits(c, offset + 14, 2);
+        int second = 0;
+        int nano = 0;
+
+        int pos = 16;
+        if (pos < length) {
+            if (c[offset + pos] != ':' || length < pos + 3) {
+                return null;
+            }
+            second = digits(c, offset + pos + 1, 2);
+            pos += 3;
+            if (pos < length) {
+                int fractionDigits = length - pos - 1;
+                if (c[offset + pos] != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                    return null;
+                }
+                nano = digits(c, offset + pos + 1, fractionDigits);
+                for (int i = fractionDigits; i < 9 && nano >= 0; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0 || nano < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /** Неотрицательное число из {@code count} цифр или -1 */
+    private static int digits(char[] c, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char ch = c[i];
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+            value = value * 10 + (ch - '0');
+        }
+        return value;
+    }
+
+    private static SlotDTO.SlotStatus readSlotStatus(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            for (SlotDTO.SlotStatus status : SLOT_STATUSES) {
+                if (textEquals(parser, status.name())) {
+                    return status;
+                }
+            }
+        }
+        return parser.readValueAs(SlotDTO.SlotStatus.class);
+    }
+
+    private static Booking.BookingStatus readBookingStatus(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            for (Booking.BookingStatus status : BOOKING_STATUSES) {
+                if (textEquals(parser, status.name())) {
+                    return status;
+                }
+            }
+        }
+        return parser.readValueAs(Booking.BookingStatus.class);
+    }
+
+    private static int textHash(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            String value = parser.getValueAsString();
+            return SlotBookings.trimmedHash(value);
+        }
+        return SlotBookings.trimmedHash(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+
+    private static boolean textEquals(JsonParser parser, String expected) throws IOException {
+        int length = parser.getTextLength();
+        if (length != expected.length()) {
+            return false;
+        }
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        for (int i = 0; i < length; i++) {
+            if (chars[offset + i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<SlotBookingDTO> parseBookings(byte[] json) {
+        try {
+            SlotBookingDTO[] bookings = bookingsReader.readValue(json);
+            return Arrays.asList(bookings);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode slot bookings", e);
+        }
+    }
+
+    private String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (interned.size() >= INTERNED_LIMIT) {
+            interned.clear();
+        }
+        String existing = interned.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.group.controllers.impl;
+
+import com.example.group.config.MainBotTimeouts;
+import com.example.group.controllers.MainBotApiClient;
+import com.example.group.controllers.MainBotEndpoint;
+import com.example.group.controllers.ReactiveMainBotApiClient;
+import com.example.group.dto.SlotBatchDTO;
+import com.example.group.dto.SlotDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Клиент основного бота на WebClient (reactor-netty): несколько event-loop потоков
+ * обслуживают любое число одновременных запросов. Включается {@code mainbot.api.client=webclient}.
+ * <p>
+ * Блокирующие методы {@link MainBotApiClient} ведут себя как в {@link MainBotApiClientImpl}
+ * (ошибки пробрасываются, 404 по id — null), но {@link #getSlotsForDates} запрашивает даты параллельно.
+ */
+@Slf4j
+@Service
+@Qualifier(CoalescingMainBotApiClient.TRANSPORT)
+@ConditionalOnProperty(name = "mainbot.api.client", havingValue = "webclient")
+public class WebClientMainBotApiClient implements MainBotApiClient, ReactiveMainBotApiClient {
+
+    private final WebClient webClient;
+    private final MainBotTimeouts timeouts;
+    private final int fanOut;
+    private final SlotBatchLoader batchLoader;
+    private final ConditionalSlotLists slotLists;
+    private final SlotListDecoder slotListDecoder;
+
+    public WebClientMainBotApiClient(WebClient.Builder builder,
+                                     MainBotTimeouts timeouts,
+                                     MeterRegistry meterRegistry,
+                                     ObjectMapper objectMapper,
+                                     @Value("${mainbot.api.base-url}") String baseUrl,
+                                     @Value("${mainbot.http.max-connections:20}") int maxConnections,
+                                     @Value("${mainbot.api.fan-out:4}") int fanOut,
+                                     @Value("${mainbot.api.batch-size:100}") int batchSize) {
+        ConnectionProvider connections = ConnectionProvider.builder("mainbot")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(timeouts.pool())
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        HttpClient httpClient = HttpClient.create(connections)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeouts.connect().toMillis())
+                .compress(true);
+
+        this.webClient = builder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.timeouts = timeouts;
+        this.fanOut = Math.max(1, fanOut);
+        this.batchLoader = new SlotBatchLoader(this::fetchBatch, this, batchSize);
+        this.slotLists = new ConditionalSlotLists(meterRegistry);
+        this.slotListDecoder = new SlotListDecoder(objectMapper);
+
+        log.info("Main bot API client: WebClient, fan-out {}", this.fanOut);
+    }
+
+    // ------------------ Reactive ------------------
+
+    @Override
+    public Flux<SlotDTO> slotsForDate(LocalDate date) {
+        return slotList(MainBotEndpoint.SLOTS_BY_DATE, "/slots?date=" + date);
+    }
+
+    @Override
+    public Flux<SlotDTO> upcomingSlots() {
+        return slotList(MainBotEndpoint.UPCOMING_SLOTS, "/slots/upcoming");
+    }
+
+    /** Условный GET: при 304 отдаётся список из прошлого ответа (см. {@link ConditionalSlotLists}) */
+    private Flux<SlotDTO> slotList(MainBotEndpoint endpoint, String uri) {
+        return Mono.defer(() -> {
+                    ConditionalSlotLists.Cached cached = slotLists.lookup(uri);
+                    return webClient.get()
+                            .uri(uri)
+                            .headers(headers -> ConditionalSlotLists.addConditions(cached, headers))
+                            .<List<SlotDTO>>exchangeToMono(response -> {
+                                if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                                    return cached != null
+                                            ? response.releaseBody().thenReturn(slotLists.notModified(endpoint, cached))
+                                            : response.releaseBody().then(Mono.error(new IllegalStateException(
+                                                    "304 Not Modified for unconditional request " + uri)));
+                                }
+                                if (response.statusCode().isError()) {
+                                    return response.createError();
+                                }
+                                HttpHeaders headers = response.headers().asHttpHeaders();
+                                return response.bodyToMono(byte[].class)
+                                        .defaultIfEmpty(new byte[0])
+                                        .map(body -> slotLists.modified(endpoint, uri, headers, slotListDecoder.decode(body)));
+                            });
+                })
+                .timeout(timeouts.response(endpoint))
+                .flatMapIterable(slots -> slots);
+    }
+
+    @Override
+    public Mono<SlotDTO> slotById(Long slotId) {
+        return webClient.get()
+                .uri("/slots/{id}", slotId)
+                .retrieve()
+                .bodyToMono(SlotDTO.class)
+                .timeout(timeouts.response(MainBotEndpoint.SLOT_BY_ID));
+    }
+
+    @Override
+    public Mono<SlotDTO> expiredSlotById(Long slotId) {
+        return webClient.get()
+                .uri("/slots/expired/{id}", slotId)
+                .retrieve()
+                .bodyToMono(SlotDTO.class)
+                .timeout(timeouts.response(MainBotEndpoint.EXPIRED_SLOT_BY_ID));
+    }
+
+    @Override
+    public Mono<Void> submitBooking(Long telegramUserId, Long slotId, String username, String firstName, String lastName) {
+        return webClient.post()
+                .uri("/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new BookingCreateRequest(telegramUserId, slotId, username, firstName, lastName))
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(timeouts.response(MainBotEndpoint.BOOKINGS))
+                .onErrorMap(e -> !(e instanceof WebClientResponseException), e -> {
+                    log.error("Failed to create booking for user={}, slot={}: {}", telegramUserId, slotId, e.getMessage());
+                    return new RuntimeException("Booking creation failed", e);
+                })
+                .onErrorMap(WebClientResponseException.class, e -> {
+                    log.error("Failed to create booking for user={}, slot={}: {} : {}", telegramUserId, slotId,
+                            e.getStatusCode(), e.getResponseBodyAsString());
+                    return BookingErrors.fromResponse(e.getStatusCode(), e.getResponseBodyAsString(), e);
+                })
+                .then();
+    }
+
+    // ------------------ Blocking ------------------
+
+    @Override
+    public List<SlotDTO> getSlotsForDate(LocalDate date) {
+        return slotsForDate(date).collectList().block();
+    }
+
+    @Override
+    public List<SlotDTO> getSlotsForDates(Collection<LocalDate> dates) {
+        return Flux.fromIterable(dates)
+                .flatMapSequential(this::slotsForDate, fanOut)
+                .collectList()
+                .block();
+    }
+
+    @Override
+    public List<SlotDTO> getUpcomingSlots() {
+        return upcomingSlots().collectList().block();
+    }
+
+    @Override
+    public SlotDTO getSlotById(Long slotId) {
+        return slotById(slotId)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                .block();
+    }
+
+    @Override
+    public SlotDTO getExpiredSlotById(Long slotId) {
+        return expiredSlotById(slotId)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                .block();
+    }
+
+    @Override
+    public SlotBatchDTO getSlotsByIds(Collection<Long> slotIds) {
+        return batchLoader.load(slotIds);
+    }
+
+    private Optional<SlotBatchDTO> fetchBatch(List<Long> slotIds) {
+        String ids = slotIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return webClient.get()
+                .uri("/slots/batch?ids={ids}", ids)
+                .retrieve()
+                .bodyToMono(SlotBatchDTO.class)
+                .timeout(timeouts.response(MainBotEndpoint.SLOTS_BATCH))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.of(new SlotBatchDTO()))
+                .onErrorResume(WebClientResponseException.class, e ->
+                        HttpStatus.NOT_FOUND.equals(e.getStatusCode()) || HttpStatus.METHOD_NOT_ALLOWED.equals(e.getStatusCode())
+                                ? Mono.just(Optional.empty())
+                                : Mono.error(e))
+                .block();
+    }
+
+    @Override
+    public void createBooking(Long telegramUserId, Long slotId, String username, String firstName, String lastName) {
+        submitBooking(telegramUserId, slotId, username, firstName, lastName).block(); // ошибки уже переведены в исключения бронирования
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.group.dto;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Заявки слота из потокового декодера: хранится сырой JSON массива, объекты
+ * {@link SlotBookingDTO} создаются только при первом обращении к элементам.
+ * Размер, число активных заявок и их отпечаток посчитаны при декодировании и доступны сразу.
+ */
+public final class LazyBookingList extends AbstractList<SlotBookingDTO> {
+
+    private final byte[] json;
+    private final int size;
+    private final int activeCount;
+    private final long activeFingerprint;
+    private final Function<byte[], List<SlotBookingDTO>> parser;
+
+    private volatile List<SlotBookingDTO> bookings;
+
+    public LazyBookingList(byte[] json,
+                           int size,
+                           int activeCount,
+                           long activeFingerprint,
+                           Function<byte[], List<SlotBookingDTO>> parser) {
+        this.json = json;
+        this.size = size;
+        this.activeCount = activeCount;
+        this.activeFingerprint = activeFingerprint;
+        this.parser = parser;
+    }
+
+    public int activeCount() {
+        return activeCount;
+    }
+
+    public long activeFingerprint() {
+        return activeFingerprint;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public SlotBookingDTO get(int index) {
+        return materialize().get(index);
+    }
+
+    /**
+     * Сравнивается только сырой JSON: проверка «изменился ли слот» не должна разбирать заявки.
+     * С обычными списками такая коллекция не равна, даже если заявки те же.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LazyBookingList other)) return false;
+        return size == other.size && Arrays.equals(json, other.json);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(json);
+    }
+
+    private List<SlotBookingDTO> materialize() {
+        List<SlotBookingDTO> result = bookings;
+        if (result == null) {
+            synchronized (this) {
+                result = bookings;
+                if (result == null) {
+                    result = Collections.unmodifiableList(parser.apply(json));
+                    bookings = result;
+                }
+            }
+        }
+        return result;
+    }
+}
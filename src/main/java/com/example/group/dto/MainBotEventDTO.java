@@ -0,0 +1,31 @@
+package com.example.group.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Событие основного бота: {@code POST /internal/main-bot/events} с заголовком
+ * {@code X-Main-Bot-Token: <mainbot.events.secret>} и телом
+ * <pre>{"type": "BOOKING_CHANGED", "slotIds": [101, 102]}</pre>
+ * <ul>
+ *     <li>{@code SLOT_CHANGED} — слоты созданы, изменены, отменены или удалены;</li>
+ *     <li>{@code BOOKING_CHANGED} — изменились заявки на слоты;</li>
+ *     <li>{@code SCORE_CHANGED} — изменились очки (таблица лидеров), {@code slotIds} не нужен;</li>
+ *     <li>{@code HEARTBEAT} — раз в несколько минут, пока события доставляются; без него
+ *     бот считает поток событий мёртвым и опрашивает основной бот каждую минуту.</li>
+ * </ul>
+ * Ответ — 202 сразу, обновление постов идёт в фоне. Повторная доставка безопасна.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MainBotEventDTO {
+    private Type type;
+    private List<Long> slotIds = new ArrayList<>();
+
+    public enum Type { SLOT_CHANGED, BOOKING_CHANGED, SCORE_CHANGED, HEARTBEAT }
+}
@@ -0,0 +1,51 @@
+package com.example.group.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ответ {@code GET /slots/batch?ids=1,2,3}: запрошенные слоты, разложенные так же, как их отдают
+ * {@code /slots/{id}} (active) и {@code /slots/expired/{id}} (expired). Id, которых нет ни в одном
+ * списке, удалены в основном боте.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotBatchDTO {
+    private List<SlotDTO> active = new ArrayList<>();
+    private List<SlotDTO> expired = new ArrayList<>();
+
+    /**
+     * Основной бот недоступен, данные — последние известные. Отсутствие id в таком ответе
+     * ничего не значит, удалять по нему посты нельзя.
+     */
+    @JsonIgnore
+    private boolean stale;
+
+    public Map<Long, SlotDTO> activeById() {
+        return byId(active);
+    }
+
+    public Map<Long, SlotDTO> expiredById() {
+        return byId(expired);
+    }
+
+    private static Map<Long, SlotDTO> byId(List<SlotDTO> slots) {
+        Map<Long, SlotDTO> result = new HashMap<>();
+        if (slots != null) {
+            for (SlotDTO slot : slots) {
+                if (slot != null && slot.getId() != null) {
+                    result.put(slot.getId(), slot);
+                }
+            }
+        }
+        return result;
+    }
+}
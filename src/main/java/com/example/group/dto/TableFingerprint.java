@@ -0,0 +1,13 @@
+package com.example.group.dto;
+
+/**
+ * Дешёвый "отпечаток" справочной таблицы: если он не изменился, перечитывать строки незачем.
+ *
+ * @param rows         всего строк
+ * @param maxId        максимальный id
+ * @param visibleIdSum сумма id видимых строк — меняется при скрытии/показе
+ * @param nameLength   суммарная длина названий — меняется при переименовании
+ * @param parentIdSum  сумма id строки × id родителя — меняется при переносе места в другой город
+ */
+public record TableFingerprint(Long rows, Long maxId, Long visibleIdSum, Long nameLength, Long parentIdSum) {
+}
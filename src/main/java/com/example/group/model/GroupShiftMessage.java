@@ -38,4 +38,8 @@ public class GroupShiftMessage {
 
     @Column(name = "evening_post")
     private boolean eveningPost;
+
+    /** Отпечаток последнего отправленного текста и клавиатуры; null — неизвестен */
+    @Column(name = "render_hash")
+    private Long renderHash;
 }
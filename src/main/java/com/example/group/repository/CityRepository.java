@@ -1,11 +1,22 @@
 package com.example.group.repository;
 
+import com.example.group.dto.TableFingerprint;
 import com.example.group.model.City;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface CityRepository extends JpaRepository<City, Long> {
 
     List<City> findByVisibleTrue();
+
+    @Query("""
+            select new com.example.group.dto.TableFingerprint(
+                count(c), max(c.id),
+                cast(sum(case when c.visible = true then c.id else 0 end) as Long),
+                cast(sum(length(c.name)) as Long),
+                cast(0 as Long))
+            from City c""")
+    TableFingerprint fingerprint();
 }
@@ -4,6 +4,7 @@ import com.example.group.model.GroupShiftMessage;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,5 +18,7 @@ public interface GroupShiftMessageRepository extends JpaRepository<GroupShiftMes
 
     List<GroupShiftMessage> findAllByChatId(Long chatId);
 
+    List<GroupShiftMessage> findAllByChatIdAndSlotIdIn(Long chatId, Collection<Long> slotIds);
+
     List<GroupShiftMessage> findAllByPostedAtBetweenAndMorningPostIsTrue(LocalDateTime start, LocalDateTime end);
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.example.group.repository;
 
+import com.example.group.dto.TableFingerprint;
 import com.example.group.model.Place;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
@@ -10,4 +12,13 @@ public interface PlaceRepository extends JpaRepository<Place, Long> {
 
     @EntityGraph(attributePaths = "city")
     List<Place> findByVisibleTrue();
+
+    @Query("""
+            select new com.example.group.dto.TableFingerprint(
+                count(p), max(p.id),
+                cast(sum(case when p.visible = true then p.id else 0 end) as Long),
+                cast(sum(length(p.name)) as Long),
+                cast(sum(p.id * p.city.id) as Long))
+            from Place p""")
+    TableFingerprint fingerprint();
 }
@@ -1,6 +1,7 @@
 package com.example.group.service;
 
 import com.example.group.dto.SlotDTO;
+import com.example.group.service.parser.ParsedMessage;
 import lombok.Builder;
 import lombok.Data;
 import org.springframework.stereotype.Component;
@@ -21,13 +22,14 @@ public class BookingRequestCache {
 
     private final Map<String, BookingRequestState> storage = new ConcurrentHashMap<>();
 
-    public String store(Message message, String userFullName, List<SlotDTO> slots) {
+    public String store(Message message, ParsedMessage parsedMessage, String userFullName, List<SlotDTO> slots) {
         String token = UUID.randomUUID().toString();
         BookingRequestState state = BookingRequestState.builder()
                 .token(token)
                 .chatId(message.getChatId())
                 .userId(message.getFrom().getId())
                 .userMessage(message)
+                .parsedMessage(parsedMessage)
                 .userFullName(userFullName)
                 .slots(List.copyOf(slots))
                 .currentIndex(0)
@@ -64,6 +66,8 @@ public class BookingRequestCache {
         private Long chatId;
         private Long userId;
         private Message userMessage;
+        /** Разбор userMessage, сделанный при получении апдейта */
+        private ParsedMessage parsedMessage;
         private String userFullName;
         private List<SlotDTO> slots;
         private int currentIndex;
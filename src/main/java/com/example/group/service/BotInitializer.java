@@ -1,23 +1,40 @@
 package com.example.group.service;
 
+import com.example.group.config.BotConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
 import org.telegram.telegrambots.meta.TelegramBotsApi;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
 
+import java.util.Map;
+
 @Slf4j
 @Component
 public class BotInitializer {
 
+    private static final String TELEGRAM_API = "https://api.telegram.org/bot";
+
     @Autowired
     TelegramBot bot;
 
+    @Autowired
+    BotConfig config;
+
+    @Autowired
+    RestTemplate restTemplate;
+
     @EventListener({ContextRefreshedEvent.class})
     public void init() throws TelegramApiException{
+        if (config.isWebhookEnabled()) {
+            registerWebhook();
+            return;
+        }
+
         TelegramBotsApi telegramBotsApi = new TelegramBotsApi(DefaultBotSession.class);
         try{
             telegramBotsApi.registerBot(bot);
@@ -28,4 +45,27 @@ public class BotInitializer {
         }
     }
 
+    private void registerWebhook() {
+        String secret = config.getWebhookSecret();
+        if (secret == null || secret.isBlank()) {
+            log.error("Webhook mode is enabled but bot.webhook.secret is empty; webhook is not registered");
+            return;
+        }
+        if (config.getWebhookUrl() == null || config.getWebhookUrl().isBlank()) {
+            log.error("Webhook mode is enabled but bot.webhook.url is empty; webhook is not registered");
+            return;
+        }
+
+        String url = config.getWebhookUrl().replaceAll("/+$", "") + config.getWebhookPath();
+        try {
+            restTemplate.postForObject(
+                    TELEGRAM_API + config.getToken() + "/setWebhook",
+                    Map.of("url", url, "secret_token", secret),
+                    String.class
+            );
+            log.info("✅ Telegram bot registered (webhook {})", url);
+        } catch (Exception e) {
+            log.error("Failed to register webhook {}: {}", url, e.getMessage());
+        }
+    }
 }
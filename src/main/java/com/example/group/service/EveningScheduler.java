@@ -3,6 +3,7 @@ package com.example.group.service;
 import com.example.group.controllers.MainBotApiClient;
 import com.example.group.repository.GroupShiftMessageRepository;
 import com.example.group.service.BotSettingsService;
+import com.example.group.service.util.Futures;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -13,6 +14,7 @@ import java.time.LocalDate;
 import java.util.LinkedHashSet;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -23,13 +25,22 @@ public class EveningScheduler {
     private final BotSettingsService settingsService;
     private final SlotPostService slotPostService;
     private final GroupShiftMessageRepository shiftMsgRepo;
+    private final MainBotEventFeed eventFeed;
 
     private TelegramBot bot;
 
     //@Scheduled(cron = "0 0 12,15,18,21 * * *")
     @Scheduled(cron = "0 */1 * * * *")
     //@Scheduled(cron = "0 */30 * * * *")
-    public void run() {
+    public void poll() {
+        if (eventFeed.shouldPoll("evening")) {
+            run();
+        }
+    }
+
+    // вызывается и планировщиком, и потоком событий основного бота: два прохода подряд, а не
+    // одновременно, иначе оба увидят слот без поста. Сами посты одного слота и так идут по очереди
+    public synchronized void run() {
         if (bot == null) {
             log.warn("EveningScheduler: bot is not set yet");
             return;
@@ -56,20 +67,17 @@ public class EveningScheduler {
 
         Set<Long> postedSlotIds = new HashSet<>();
 
-        datesToPost.stream()
-                .flatMap(date -> api.getSlotsForDate(date).stream())
+        api.getSlotsForDates(datesToPost).stream()
                 .filter(slot -> postedSlotIds.add(slot.getId()))
                 .forEach(slot -> {
-                    try {
-                        boolean alreadyTracked = shiftMsgRepo.findByChatIdAndSlotId(groupChatId, slot.getId()).isPresent();
-                        if (alreadyTracked) {
-                            slotPostService.publishSlotPost(bot, groupChatId, slot, false, true);
-                        } else {
-                            slotPostService.publishSlotPost(bot, groupChatId, slot, false, true, false);
-                        }
-                    } catch (Exception e) {
-                        log.error("Failed to publish evening slot {}: {}", slot.getId(), e.getMessage());
-                    }
+                    boolean alreadyTracked = shiftMsgRepo.findByChatIdAndSlotId(groupChatId, slot.getId()).isPresent();
+                    CompletableFuture<?> published = alreadyTracked
+                            ? slotPostService.publishSlotPost(bot, groupChatId, slot, false, true)
+                            : slotPostService.publishSlotPost(bot, groupChatId, slot, false, true, false);
+                    published.exceptionally(e -> {
+                        log.error("Failed to publish evening slot {}: {}", slot.getId(), Futures.unwrap(e).getMessage());
+                        return null;
+                    });
                 });
     }
 
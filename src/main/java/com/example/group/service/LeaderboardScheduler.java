@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 public class LeaderboardScheduler {
 
     private final LeaderboardUpdater leaderboardUpdater;
+    private final MainBotEventFeed eventFeed;
 
     private TelegramBot bot;
 
@@ -19,7 +20,14 @@ public class LeaderboardScheduler {
     }
 
     @Scheduled(cron = "0 */1 * * * *")
-    public void refreshPinnedMessage() {
+    public void poll() {
+        if (eventFeed.shouldPoll("leaderboard")) {
+            refreshPinnedMessage();
+        }
+    }
+
+    // плановый опрос и событие SCORE_CHANGED не должны обновлять закреп одновременно
+    public synchronized void refreshPinnedMessage() {
         if (bot == null) {
             log.warn("LeaderboardScheduler: bot is not set yet");
             return;
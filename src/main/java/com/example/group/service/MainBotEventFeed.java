@@ -0,0 +1,49 @@
+package com.example.group.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Жив ли поток событий от основного бота. Пока события (или heartbeat) приходят не реже
+ * {@code mainbot.events.live-window-ms}, плановые опросы выполняются только раз в
+ * {@code mainbot.events.safety-poll-ms} — как страховка от потерянных событий.
+ */
+@Component
+public class MainBotEventFeed {
+
+    private final Duration liveWindow;
+    private final Duration safetyPoll;
+    private final Map<String, Instant> lastPolls = new ConcurrentHashMap<>();
+
+    private volatile Instant lastEventAt = Instant.EPOCH;
+
+    public MainBotEventFeed(@Value("${mainbot.events.live-window-ms:300000}") long liveWindowMs,
+                            @Value("${mainbot.events.safety-poll-ms:600000}") long safetyPollMs) {
+        this.liveWindow = Duration.ofMillis(liveWindowMs);
+        this.safetyPoll = Duration.ofMillis(safetyPollMs);
+    }
+
+    public void markReceived() {
+        lastEventAt = Instant.now();
+    }
+
+    public boolean isLive() {
+        return lastEventAt.plus(liveWindow).isAfter(Instant.now());
+    }
+
+    /** Нужно ли плановому опросу {@code poller} идти в основной бот сейчас; true запоминает время опроса */
+    public boolean shouldPoll(String poller) {
+        Instant now = Instant.now();
+        Instant last = lastPolls.get(poller);
+        if (isLive() && last != null && last.plus(safetyPoll).isAfter(now)) {
+            return false;
+        }
+        lastPolls.put(poller, now);
+        return true;
+    }
+}
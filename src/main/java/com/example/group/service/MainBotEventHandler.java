@@ -0,0 +1,103 @@
+package com.example.group.service;
+
+import com.example.group.dto.MainBotEventDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Обработка событий основного бота в одном фоновом потоке. События, пришедшие пока идёт
+ * обновление, склеиваются: затронутые слоты копятся в множестве и обновляются одним батчем.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MainBotEventHandler {
+
+    private final MainBotEventFeed feed;
+    private final SlotPostUpdater slotPostUpdater;
+    private final EveningScheduler eveningScheduler;
+    private final LeaderboardScheduler leaderboardScheduler;
+    private final SlotCatalog slotCatalog;
+
+    private final Set<Long> pendingSlotIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean scorePending = new AtomicBoolean();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r);
+        t.setName("main-bot-events");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public void accept(MainBotEventDTO event) {
+        feed.markReceived();
+        if (event.getType() == null) {
+            return;
+        }
+
+        switch (event.getType()) {
+            case SLOT_CHANGED, BOOKING_CHANGED -> {
+                if (event.getSlotIds() != null) {
+                    event.getSlotIds().stream().filter(Objects::nonNull).forEach(pendingSlotIds::add);
+                }
+            }
+            case SCORE_CHANGED -> scorePending.set(true);
+            case HEARTBEAT -> {
+                return;
+            }
+        }
+
+        if (drainScheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void drain() {
+        // флаг сбрасывается до чтения очереди: событие, пришедшее во время обновления, запустит ещё один проход
+        drainScheduled.set(false);
+
+        List<Long> slotIds = new ArrayList<>(pendingSlotIds);
+        pendingSlotIds.removeAll(slotIds);
+        if (!slotIds.isEmpty()) {
+            refreshSlots(slotIds);
+        }
+
+        if (scorePending.getAndSet(false)) {
+            try {
+                leaderboardScheduler.refreshPinnedMessage();
+            } catch (Exception e) {
+                log.error("MainBotEventHandler: failed to refresh leaderboard: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void refreshSlots(List<Long> slotIds) {
+        slotCatalog.invalidate();
+        try {
+            Set<Long> untracked = slotPostUpdater.refreshSlots(slotIds);
+            if (!untracked.isEmpty()) {
+                // у новых слотов ещё нет поста — их публикует вечерний прогон по датам
+                log.info("MainBotEventHandler: slots {} have no posts yet, running evening publish", untracked);
+                eveningScheduler.run();
+            }
+        } catch (Exception e) {
+            log.error("MainBotEventHandler: failed to refresh slots {}: {}", slotIds, e.getMessage());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.group.service;
 
 import com.example.group.controllers.MainBotApiClient;
 import com.example.group.dto.SlotDTO;
+import com.example.group.service.util.Futures;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -52,16 +53,13 @@ public class MorningScheduler {
 
         Set<Long> postedSlotIds = new HashSet<>();
 
-        datesToPost.stream()
-                .flatMap(date -> api.getSlotsForDate(date).stream())
+        api.getSlotsForDates(datesToPost).stream()
                 .filter(slot -> postedSlotIds.add(slot.getId()))
-                .forEach(slot -> {
-                    try {
-                        slotPostService.publishSlotPost(bot, groupChatId, slot, true, false, true);
-                    } catch (Exception e) {
-                        log.error("Failed to publish slot {}: {}", slot.getId(), e.getMessage());
-                    }
-                });
+                .forEach(slot -> slotPostService.publishSlotPost(bot, groupChatId, slot, true, false, true)
+                        .exceptionally(e -> {
+                            log.error("Failed to publish slot {}: {}", slot.getId(), Futures.unwrap(e).getMessage());
+                            return null;
+                        }));
     }
 
     public void start(TelegramBot bot) {
@@ -1,6 +1,13 @@
 package com.example.group.service;
 
 import com.example.group.dto.ParsedShiftRequest;
+import com.example.group.service.parser.DateTimeScanner;
+import com.example.group.service.parser.DateTimeScanner.Kind;
+import com.example.group.service.parser.DateTimeScanner.Match;
+import com.example.group.service.parser.LexedMessage;
+import com.example.group.service.parser.MessageLexer;
+import com.example.group.service.parser.NameScanner;
+import com.example.group.service.parser.ParsedMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -13,76 +20,80 @@ import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoField;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class PatternParser {
 
-    private static final Pattern DATE_DOTTED = Pattern.compile("(?iu)(\\d{1,2})[./](\\d{1,2})(?:[./](\\d{2,4}))?(?:\\s*\\([^)]*\\))?");
-    private static final Pattern DATE_ISO = Pattern.compile("(?iu)(\\d{4})-(\\d{1,2})-(\\d{1,2})");
-
-    private static final Pattern TIME_FOUR_PARTS = Pattern.compile("(?iu)(\\d{1,2}[:.]\\d{2})[:.]?(\\d{1,2}[:.]\\d{2})");
-    private static final Pattern TIME_RANGE = Pattern.compile(
-            "(?iu)(?:[ззcс]\\s*)?(?<start>\\d{1,2}(?::?\\d{1,2})?)?\\s*[–—:\\-]\\s*(?<end>\\d{1,2}(?::?\\d{1,2})?)?"
+    private static final List<Kind> STRIPPED_KINDS = List.of(
+            Kind.DATE_DOTTED, Kind.DATE_ISO, Kind.TIME_FOUR_PARTS, Kind.TIME_RANGE, Kind.TIME_FROM_TO
     );
 
-    private static final Pattern TIME_FROM_TO = Pattern.compile(
-            "(?iu)(?:[ззcс]\\s*)?(?<start>\\d{1,2}(?::?\\d{1,2})?)?\\s*(?<!\\p{L})(?:до|to|по|till)(?!\\p{L})\\s*(?<end>\\d{1,2}(?::?\\d{1,2})?)?"
-    );
-    private static final Pattern INLINE_NAME = Pattern.compile(
-            "(?iu)([\\p{L}\\p{M}'’-]{2,}\\s+[\\p{L}\\p{M}'’-]{2,}(?:\\s+[\\p{L}\\p{M}'’-]{2,})?)"
-    );
+    private static final DateTimeFormatter HOUR_MINUTE = new DateTimeFormatterBuilder()
+            .appendPattern("H:mm")
+            .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0)
+            .toFormatter(Locale.getDefault());
 
     private final StopWordService stopWordService;
+    private final MessageLexer lexer;
 
     public Optional<ParsedShiftRequest> parse(String rawText) {
+        return parseMessage(rawText).shiftRequest();
+    }
+
+    /** Полный разбор сообщения; результат переиспользуется на всём пути обработки апдейта */
+    public ParsedMessage parseMessage(String rawText) {
         if (rawText == null || rawText.isBlank()) {
-            return Optional.empty();
+            return ParsedMessage.EMPTY;
+        }
+
+        LexedMessage message = lexer.lex(rawText);
+        String name = extractName(message, null);
+        String nameOnly = blankToNull(name);
+        if (!message.hasDigits()) {
+            // без цифр нет ни даты, ни времени
+            return ParsedMessage.unrecognized(message, nameOnly);
         }
 
-        String normalizedText = normalize(rawText);
-        String textWithoutLocations = stripLocationTokens(normalizedText);
-        List<String> lines = Arrays.stream(normalizedText.split("\\r?\\n"))
-                .map(String::trim)
-                .filter(s -> !s.isBlank())
-                .toList();
+        String normalizedText = message.normalized();
+        DateTimeScanner scanner = new DateTimeScanner(normalizedText);
+        LocalDate date = extractDate(scanner);
+        TimeRange timeRange = extractTime(scanner);
+
+        boolean hasDateOrTime = date != null || timeRange.start != null || timeRange.end != null;
+        if (!hasDateOrTime) {
+            return ParsedMessage.unrecognized(message, nameOnly);
+        }
 
         boolean hasLocationToken = stopWordService.containsAnyLocationToken(normalizedText);
+        List<String> lines = stripDateTime(message.lines());
 
-        String name = extractName(textWithoutLocations, null);
         String placeText = extractPlace(lines, name);
 
         if (name == null && placeText != null) {
-            name = extractName(textWithoutLocations, placeText);
+            name = extractName(message, placeText);
             if (name != null) {
                 placeText = extractPlace(lines, name);
             }
         }
-        LocalDate date = extractDate(normalizedText);
-        TimeRange timeRange = extractTime(normalizedText);
 
-        boolean hasDateOrTime = date != null || timeRange.start != null || timeRange.end != null;
         boolean hasName = name != null && !name.isBlank();
 
-        if (!hasDateOrTime) {
-            return Optional.empty();
-        }
-
         if (!hasLocationToken && placeText == null && !hasName) {
-            return Optional.empty();
+            return ParsedMessage.unrecognized(message, nameOnly);
         }
 
-        return Optional.of(new ParsedShiftRequest(
+        return new ParsedMessage(
+                message,
+                true,
                 date,
                 timeRange.start,
                 timeRange.end,
                 blankToNull(placeText),
-                name
-        ));
+                name,
+                nameOnly
+        );
     }
 
     public Optional<String> extractNameOnly(String rawText) {
@@ -90,64 +101,23 @@ public class PatternParser {
             return Optional.empty();
         }
 
-        String normalizedText = normalize(rawText);
-        String name = extractName(stripLocationTokens(normalizedText), null);
+        String name = extractName(lexer.lex(rawText), null);
         return Optional.ofNullable(blankToNull(name));
     }
 
     public boolean isLikelyShiftRequest(String text) {
-        return parse(text)
-                .map(req -> req.getDate() != null
-                        || req.getStartTime() != null
-                        || req.getEndTime() != null
-                        || req.getPlaceText() != null)
-                .orElse(false);
+        return parseMessage(text).isLikelyShiftRequest();
     }
 
-    private String normalize(String text) {
-        String cleaned = text
-                .replace('\u2013', '-')
-                .replace('\u2014', '-')
-                .replace('\u2015', '-')
-                .replace('\u2212', '-')
-                .replace('\u2026', ' ')
-                .replace('\u2010', '-')
-                .replace('\u00a0', ' ');
-
-        cleaned = cleaned.replaceAll("[\\p{So}\\p{Sk}\\p{Sc}\\p{Sm}]+", " ");
-
-        // Keep line breaks to better separate place/name lines, but collapse all other whitespace noise.
-        cleaned = cleaned.replaceAll("[ \\t\\x0B\\f\\r]+", " ");
-        cleaned = cleaned.replaceAll("\\s*\\n\\s*", "\n");
-
-        return cleaned.trim();
-    }
-
-    private String stripLocationTokens(String text) {
-        if (text == null || text.isBlank()) {
-            return text;
-        }
-
-        StringBuilder result = new StringBuilder();
-        for (String token : text.split("\\s+")) {
-            if (token.isBlank() || stopWordService.isStopWordToken(token)) {
-                continue;
-            }
-            result.append(token).append(' ');
-        }
-
-        return result.toString().trim();
-    }
-
-    private LocalDate extractDate(String text) {
-        Matcher dotted = DATE_DOTTED.matcher(text);
-        if (dotted.find()) {
-            return buildDate(dotted.group(1), dotted.group(2), dotted.group(3));
+    private LocalDate extractDate(DateTimeScanner scanner) {
+        Match dotted = scanner.find(Kind.DATE_DOTTED, 0);
+        if (dotted != null) {
+            return buildDate(dotted.group1(), dotted.group2(), dotted.group3());
         }
 
-        Matcher iso = DATE_ISO.matcher(text);
-        if (iso.find()) {
-            return buildDate(iso.group(3), iso.group(2), iso.group(1));
+        Match iso = scanner.find(Kind.DATE_ISO, 0);
+        if (iso != null) {
+            return buildDate(iso.group3(), iso.group2(), iso.group1());
         }
         return null;
     }
@@ -176,19 +146,18 @@ public class PatternParser {
         }
     }
 
-    private TimeRange extractTime(String text) {
-        Matcher four = TIME_FOUR_PARTS.matcher(text);
-        if (four.find()) {
-            LocalTime start = parseTimeToken(four.group(1));
-            LocalTime end = parseTimeToken(four.group(2));
+    private TimeRange extractTime(DateTimeScanner scanner) {
+        Match four = scanner.find(Kind.TIME_FOUR_PARTS, 0);
+        if (four != null) {
+            LocalTime start = parseTimeToken(four.group1());
+            LocalTime end = parseTimeToken(four.group2());
             return new TimeRange(start, end);
         }
 
-        for (Pattern pattern : List.of(TIME_RANGE, TIME_FROM_TO)) {
-            Matcher range = pattern.matcher(text);
-            while (range.find()) {
-                String startStr = range.group("start");
-                String endStr = range.group("end");
+        for (Kind kind : List.of(Kind.TIME_RANGE, Kind.TIME_FROM_TO)) {
+            for (Match range = scanner.find(kind, 0); range != null; range = scanner.find(kind, range.end())) {
+                String startStr = range.group1();
+                String endStr = range.group2();
 
                 if (bothTooShort(startStr, endStr)) {
                     continue;
@@ -224,11 +193,7 @@ public class PatternParser {
         }
 
         try {
-            DateTimeFormatter formatter = new DateTimeFormatterBuilder()
-                    .appendPattern("H:mm")
-                    .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0)
-                    .toFormatter(Locale.getDefault());
-            LocalTime time = LocalTime.parse(safe, formatter);
+            LocalTime time = LocalTime.parse(safe, HOUR_MINUTE);
             if (time.getHour() == 24) {
                 return LocalTime.of(23, 59);
             }
@@ -249,43 +214,33 @@ public class PatternParser {
         return startSimple && endSimple;
     }
 
-    private String extractName(String text, String placeText) {
-        Matcher matcher = INLINE_NAME.matcher(text);
+    private String extractName(LexedMessage message, String placeText) {
         String best = null;
-        int bestPos = -1;
-
-        while (matcher.find()) {
-            String candidate = matcher.group(1).trim();
-            candidate = candidate.replaceAll("^[,-,\\s]+|[,-,\\s]+$", "");
-
-            String[] parts = candidate.split("\\s+");
-            if (parts.length < 2 || parts.length > 3) {
-                continue;
-            }
-            if (candidate.matches(".*\\d.*")) {
-                continue;
-            }
-            if (containsStopWord(parts) || insidePlace(candidate, placeText) || allStopWords(parts)) {
+        for (LexedMessage.NameCandidate candidate : message.nameCandidates()) {
+            if (candidate.containsLocation() || insidePlace(candidate.text(), placeText)) {
                 continue;
             }
+            best = candidate.text();
+        }
+        return best;
+    }
 
-            if (matcher.start() >= bestPos) {
-                best = candidate;
-                bestPos = matcher.start();
+    /** Убирает из строк даты и время; результат нужен extractPlace и не зависит от имени */
+    private List<String> stripDateTime(List<String> lines) {
+        List<String> result = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            String cleaned = line;
+            for (Kind kind : STRIPPED_KINDS) {
+                cleaned = DateTimeScanner.removeAll(cleaned, kind);
             }
+            result.add(cleaned);
         }
-        return best;
+        return result;
     }
 
     private String extractPlace(List<String> lines, String detectedName) {
         List<String> placeParts = new ArrayList<>();
-        for (String line : lines) {
-            String cleaned = removeMatches(line, DATE_DOTTED);
-            cleaned = removeMatches(cleaned, DATE_ISO);
-            cleaned = removeMatches(cleaned, TIME_FOUR_PARTS);
-            cleaned = removeMatches(cleaned, TIME_RANGE);
-            cleaned = removeMatches(cleaned, TIME_FROM_TO);
-
+        for (String cleaned : lines) {
             if (detectedName != null) {
                 cleaned = cleaned.replace(detectedName, " ");
             }
@@ -311,39 +266,11 @@ public class PatternParser {
             return null;
         }
 
-        return String.join(" ", placeParts)
-                .replaceAll("\\s+", " ")
-                .trim();
-    }
-
-    private String removeMatches(String text, Pattern pattern) {
-        Matcher matcher = pattern.matcher(text);
-        StringBuffer sb = new StringBuffer();
-        boolean found = false;
-        while (matcher.find()) {
-            matcher.appendReplacement(sb, " ");
-            found = true;
-        }
-        matcher.appendTail(sb);
-        if (!found) {
-            return text;
-        }
-        return sb.toString();
+        return collapseSpaces(String.join(" ", placeParts));
     }
 
     private boolean looksLikeName(String candidate) {
-        Matcher matcher = INLINE_NAME.matcher(candidate);
-        return matcher.find() && !candidate.matches(".*\\d.*");
-    }
-
-    private boolean containsStopWord(String[] parts) {
-        return Arrays.stream(parts)
-                .anyMatch(stopWordService::isStopWordToken);
-    }
-
-    private boolean allStopWords(String[] parts) {
-        return Arrays.stream(parts)
-                .allMatch(stopWordService::isStopWordToken);
+        return NameScanner.containsName(candidate) && !containsDigit(candidate);
     }
 
     private boolean insidePlace(String candidate, String placeText) {
@@ -367,10 +294,65 @@ public class PatternParser {
         if (text == null || text.isBlank()) {
             return Set.of();
         }
-        return Arrays.stream(text.split("\\s+"))
-                .map(token -> token.replaceAll("[^\\p{L}\\p{N}]+", ""))
-                .filter(token -> !token.isBlank())
-                .collect(Collectors.toSet());
+
+        Set<String> tokens = new HashSet<>();
+        StringBuilder token = new StringBuilder();
+        int i = 0;
+        while (i <= text.length()) {
+            int cp = i < text.length() ? text.codePointAt(i) : ' ';
+            i += i < text.length() ? Character.charCount(cp) : 1;
+
+            if (cp < Character.MIN_SUPPLEMENTARY_CODE_POINT && NameScanner.isSpace((char) cp)) {
+                if (!token.isEmpty()) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                }
+                continue;
+            }
+            // в токене остаются только буквы и цифры
+            if (Character.isLetter(cp) || isNumber(cp)) {
+                token.appendCodePoint(cp);
+            }
+        }
+        return tokens;
+    }
+
+    private boolean isNumber(int cp) {
+        int type = Character.getType(cp);
+        return type == Character.DECIMAL_DIGIT_NUMBER
+                || type == Character.LETTER_NUMBER
+                || type == Character.OTHER_NUMBER;
+    }
+
+    private boolean containsDigit(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String collapseSpaces(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (NameScanner.isSpace(c)) {
+                space = true;
+                continue;
+            }
+            if (space) {
+                sb.append(' ');
+                space = false;
+            }
+            sb.append(c);
+        }
+        if (space) {
+            sb.append(' ');
+        }
+        return sb.toString().trim();
     }
 
     private String blankToNull(String value) {
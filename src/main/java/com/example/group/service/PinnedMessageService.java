@@ -1,5 +1,7 @@
 package com.example.group.service;
 
+import com.example.group.service.TelegramGateway.Lane;
+import com.example.group.service.util.Futures;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -7,7 +9,6 @@ import org.telegram.telegrambots.bots.TelegramLongPollingBot;
 import org.telegram.telegrambots.meta.api.methods.pinnedmessages.PinChatMessage;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
-import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
 
 import java.time.ZoneId;
@@ -17,6 +18,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -27,7 +29,16 @@ public class PinnedMessageService {
     private static final ZoneId KYIV_ZONE = ZoneId.of("Europe/Kiev");
 
     private final BotSettingsService botSettingsService;
+    private final TelegramGateway gateway;
 
+    /** Последний ещё не начатый апдейт; более новый вытесняет его */
+    private PendingLeaderboard pending;
+    private boolean updating;
+
+    /**
+     * Обновляет закреплённый рейтинг, не дожидаясь Telegram. Одновременно идёт не больше одного
+     * обновления — иначе два потока, не найдя закреп, создали бы два сообщения.
+     */
     public void upsertLeaderboard(TelegramLongPollingBot bot, Long chatId, List<UserScorePoints> leaderboard) {
         if (bot == null) {
             log.warn("PinnedMessageService: bot instance is null");
@@ -38,35 +49,72 @@ public class PinnedMessageService {
             return;
         }
 
-        String text = formatLeaderboard(leaderboard);
-        Integer pinnedMessageId = botSettingsService.getPinnedMessageId();
-
-        if (pinnedMessageId == null) {
-            createAndPin(bot, chatId, text);
-            return;
+        PendingLeaderboard update = new PendingLeaderboard(bot, chatId, formatLeaderboard(leaderboard));
+        synchronized (this) {
+            pending = update;
+            if (updating) {
+                // текущее обновление подхватит его, когда закончится
+                return;
+            }
+            updating = true;
         }
+        runNext();
+    }
 
-        try {
-            EditMessageText edit = EditMessageText.builder()
-                    .chatId(chatId.toString())
-                    .messageId(pinnedMessageId)
-                    .text(text)
-                    .parseMode("HTML")
-                    .build();
-            bot.execute(edit);
-            ensurePinned(bot, chatId, pinnedMessageId);
-        } catch (TelegramApiRequestException e) {
-            if (isMessageNotModified(e)) {
-                log.debug("Pinned message unchanged; skipping recreation");
-                ensurePinned(bot, chatId, pinnedMessageId);
+    private void runNext() {
+        PendingLeaderboard next;
+        synchronized (this) {
+            next = pending;
+            pending = null;
+            if (next == null) {
+                updating = false;
                 return;
             }
+        }
 
-            log.warn("Pinned message update failed ({}). Recreating...", e.getMessage());
-            createAndPin(bot, chatId, text);
+        CompletableFuture<Void> update;
+        try {
+            update = upsert(next.bot(), next.chatId(), next.text());
         } catch (Exception e) {
-            log.error("Unexpected error during pinned message update", e);
+            update = CompletableFuture.failedFuture(e);
+        }
+        update.whenComplete((ignored, e) -> {
+            if (e != null) {
+                log.error("Unexpected error during pinned message update", Futures.unwrap(e));
+            }
+            runNext();
+        });
+    }
+
+    private CompletableFuture<Void> upsert(TelegramLongPollingBot bot, Long chatId, String text) {
+        Integer pinnedMessageId = botSettingsService.getPinnedMessageId();
+
+        if (pinnedMessageId == null) {
+            return createAndPin(bot, chatId, text);
         }
+
+        EditMessageText edit = EditMessageText.builder()
+                .chatId(chatId.toString())
+                .messageId(pinnedMessageId)
+                .text(text)
+                .parseMode("HTML")
+                .build();
+        return gateway.submit(bot, edit, Lane.BULK)
+                .thenCompose(edited -> ensurePinned(bot, chatId, pinnedMessageId))
+                .exceptionallyCompose(e -> {
+                    Throwable cause = Futures.unwrap(e);
+                    if (!(cause instanceof TelegramApiRequestException requestException)) {
+                        log.error("Unexpected error during pinned message update", cause);
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    if (isMessageNotModified(requestException)) {
+                        log.debug("Pinned message unchanged; skipping recreation");
+                        return ensurePinned(bot, chatId, pinnedMessageId);
+                    }
+
+                    log.warn("Pinned message update failed ({}). Recreating...", requestException.getMessage());
+                    return createAndPin(bot, chatId, text);
+                });
     }
 
     private boolean isMessageNotModified(TelegramApiRequestException exception) {
@@ -77,36 +125,47 @@ public class PinnedMessageService {
                 || message.toLowerCase(Locale.ROOT).contains("message is not modified");
     }
 
-    private void createAndPin(TelegramLongPollingBot bot, Long chatId, String text) {
-        try {
-            Message msg = bot.execute(SendMessage.builder()
-                    .chatId(chatId.toString())
-                    .text(text)
-                    .parseMode("HTML")
-                    .build());
-            botSettingsService.savePinnedMessageId(msg.getMessageId());
-            ensurePinned(bot, chatId, msg.getMessageId());
-        } catch (TelegramApiRequestException e) {
-            log.warn("Failed to create or pin leaderboard message: {}", e.getMessage());
-        } catch (Exception e) {
-            log.error("Unexpected error while creating pinned message", e);
-        }
+    private CompletableFuture<Void> createAndPin(TelegramLongPollingBot bot, Long chatId, String text) {
+        SendMessage send = SendMessage.builder()
+                .chatId(chatId.toString())
+                .text(text)
+                .parseMode("HTML")
+                .build();
+        return gateway.submit(bot, send, Lane.BULK)
+                .thenCompose(msg -> {
+                    botSettingsService.savePinnedMessageId(msg.getMessageId());
+                    return ensurePinned(bot, chatId, msg.getMessageId());
+                })
+                .exceptionally(e -> {
+                    Throwable cause = Futures.unwrap(e);
+                    if (cause instanceof TelegramApiRequestException) {
+                        log.warn("Failed to create or pin leaderboard message: {}", cause.getMessage());
+                    } else {
+                        log.error("Unexpected error while creating pinned message", cause);
+                    }
+                    return null;
+                });
     }
 
-    private void ensurePinned(TelegramLongPollingBot bot, Long chatId, Integer messageId) {
+    /** Никогда не завершается ошибкой: незакреплённый рейтинг — не повод пересоздавать сообщение */
+    private CompletableFuture<Void> ensurePinned(TelegramLongPollingBot bot, Long chatId, Integer messageId) {
         PinChatMessage pin = PinChatMessage.builder()
                 .chatId(chatId.toString())
                 .messageId(messageId)
                 .disableNotification(true)
                 .build();
 
-        try {
-            bot.execute(pin);
-        } catch (TelegramApiRequestException e) {
-            log.warn("Unable to pin leaderboard message ({}). Check bot permissions.", e.getMessage());
-        } catch (Exception e) {
-            log.error("Unexpected error while pinning message", e);
-        }
+        return gateway.submit(bot, pin, Lane.BULK)
+                .<Void>thenApply(pinned -> null)
+                .exceptionally(e -> {
+                    Throwable cause = Futures.unwrap(e);
+                    if (cause instanceof TelegramApiRequestException) {
+                        log.warn("Unable to pin leaderboard message ({}). Check bot permissions.", cause.getMessage());
+                    } else {
+                        log.error("Unexpected error while pinning message", cause);
+                    }
+                    return null;
+                });
     }
 
     private String formatLeaderboard(List<UserScorePoints> leaderboard) {
@@ -223,4 +282,6 @@ public class PinnedMessageService {
     private String formattedNow() {
         return ZonedDateTime.now(KYIV_ZONE).format(TS);
     }
+
+    private record PendingLeaderboard(TelegramLongPollingBot bot, Long chatId, String text) {}
 }
@@ -0,0 +1,115 @@
+package com.example.group.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Дешёвая проверка текста из general-топика до постановки в очередь чата.
+ * <p>
+ * {@link PatternParser#parse} принимает сообщение только при найденной дате или времени,
+ * а все его шаблоны даты/времени требуют цифру и разделитель ({@code . / : -}) либо слово
+ * {@code до/to/по/till}. Если этого нет — сообщение заявкой быть не может и отбрасывается
+ * одним проходом по строке, без аллокаций. Команды ({@code /bind}) пропускаются всегда.
+ */
+@Component
+public class ShiftRequestPrefilter {
+
+    private final Counter accepted;
+    private final Counter rejected;
+
+    public ShiftRequestPrefilter(MeterRegistry meterRegistry) {
+        this.accepted = Counter.builder("bot.prefilter.messages")
+                .description("General-topic messages checked before dispatch")
+                .tag("result", "accepted")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("bot.prefilter.messages")
+                .description("General-topic messages checked before dispatch")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+    }
+
+    public boolean accept(String text) {
+        boolean result = mayBeRequest(text);
+        (result ? accepted : rejected).increment();
+        return result;
+    }
+
+    private static boolean mayBeRequest(String text) {
+        if (text == null) {
+            return false;
+        }
+
+        int length = text.length();
+        int first = 0;
+        while (first < length && Character.isWhitespace(text.charAt(first))) {
+            first++;
+        }
+        if (first < length && text.charAt(first) == '/') {
+            return true;
+        }
+
+        boolean digit = false;
+        boolean separator = false;
+        int wordStart = -1;
+
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+
+            if (Character.isLetter(c)) {
+                if (wordStart < 0) {
+                    wordStart = i;
+                }
+                continue;
+            }
+
+            if (wordStart >= 0) {
+                if (!separator && isRangeWord(text, wordStart, i - wordStart)) {
+                    separator = true;
+                }
+                wordStart = -1;
+            }
+
+            if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (isSeparator(c)) {
+                separator = true;
+            }
+
+            if (digit && separator) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSeparator(char c) {
+        return switch (c) {
+            // '-' и всё, что MessageLexer.normalize превращает в '-'
+            case '.', '/', ':', '-', '‐', '–', '—', '―', '−' -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isRangeWord(String text, int start, int length) {
+        return switch (length) {
+            case 2 -> regionEquals(text, start, "до") || regionEquals(text, start, "по") || regionEquals(text, start, "to");
+            case 4 -> regionEquals(text, start, "till");
+            default -> false;
+        };
+    }
+
+    private static boolean regionEquals(String text, int start, String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (fold(text.charAt(start + i)) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Та же свёртка регистра, что у Pattern с (?iu) */
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
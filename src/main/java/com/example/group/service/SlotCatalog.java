@@ -0,0 +1,28 @@
+package com.example.group.service;
+
+import com.example.group.dto.SlotDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Локальная копия ближайших слотов основного бота, обновляемая в фоне.
+ * Поиск смен по сообщениям работает с ней, а не ходит в API на каждое сообщение.
+ */
+public interface SlotCatalog {
+
+    /** Слоты на дату; если дата вне загруженного диапазона — запрос в API */
+    List<SlotDTO> slotsForDate(LocalDate date);
+
+    /** Все ближайшие слоты */
+    List<SlotDTO> upcomingSlots();
+
+    Optional<SlotDTO> findById(Long slotId);
+
+    /** Версия данных: меняется только когда набор слотов действительно изменился */
+    long version();
+
+    /** Данные устарели (например, после записи) — перечитать в фоне как можно скорее */
+    void invalidate();
+}
@@ -0,0 +1,101 @@
+package com.example.group.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Короткоживущий кэш результатов {@link SlotService#findMatchingSlot}: в группе одну и ту же
+ * заявку ("Київ склад 10:00-18:00 завтра") часто пишут несколько человек подряд.
+ * <p>
+ * Кэшируются и пустые результаты. Записи привязаны к версии каталога слотов — как только
+ * каталог изменился, кэш очищается целиком.
+ */
+@Component
+public class SlotMatchCache {
+
+    private final Map<Key, Entry> storage = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile long catalogVersion = Long.MIN_VALUE;
+
+    public SlotMatchCache(MeterRegistry meterRegistry,
+                          @Value("${bot.slots.match-cache.ttl-ms:60000}") long ttlMs,
+                          @Value("${bot.slots.match-cache.max-entries:1000}") int maxEntries) {
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("bot.slots.match.cache")
+                .description("Slot match lookups served from or missed by the cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("bot.slots.match.cache")
+                .description("Slot match lookups served from or missed by the cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("bot.slots.match.cache.size", storage, Map::size)
+                .description("Cached slot match results")
+                .register(meterRegistry);
+    }
+
+    public Optional<SlotMatchResult> get(Key key, long version) {
+        syncVersion(version);
+        Entry entry = storage.get(key);
+        if (entry == null || entry.version() != version || entry.expiresAt().isBefore(Instant.now())) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.result());
+    }
+
+    public void put(Key key, long version, SlotMatchResult result) {
+        syncVersion(version);
+        if (version < catalogVersion) {
+            // поиск шёл по старому каталогу, а новый уже пришёл — такой результат не нужен
+            return;
+        }
+        if (storage.size() >= maxEntries) {
+            Instant now = Instant.now();
+            storage.values().removeIf(entry -> entry.expiresAt().isBefore(now));
+            if (storage.size() >= maxEntries) {
+                storage.clear();
+            }
+        }
+        storage.put(key, new Entry(result, version, Instant.now().plus(ttl)));
+    }
+
+    /**
+     * Версия только растёт: запрос, начатый до обновления каталога, не должен сбросить кэш новой
+     * версии. Записи старее текущей отсекает проверка версии в {@link #get}.
+     */
+    private void syncVersion(long version) {
+        if (version > catalogVersion) {
+            synchronized (this) {
+                if (version > catalogVersion) {
+                    storage.clear();
+                    catalogVersion = version;
+                }
+            }
+        }
+    }
+
+    /**
+     * Нормализованные параметры заявки. {@code today} входит в ключ, потому что без даты
+     * ранжирование зависит от близости к сегодняшнему дню.
+     */
+    public record Key(LocalDate date, int startMinute, int endMinute, String placeText, long today) {}
+
+    private record Entry(SlotMatchResult result, long version, Instant expiresAt) {}
+}
@@ -6,11 +6,15 @@ import com.example.group.dto.SlotDTO;
 import com.example.group.model.Booking;
 import com.example.group.model.GroupShiftMessage;
 import com.example.group.repository.GroupShiftMessageRepository;
+import com.example.group.service.TelegramGateway.Lane;
+import com.example.group.service.util.Futures;
 import com.example.group.service.util.SlotAvailabilityCalculator;
 import com.example.group.service.util.SlotAvailabilityCalculator.SlotAvailability;
+import com.example.group.service.util.SlotBookings;
 import com.example.group.service.util.TimeUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
@@ -22,9 +26,17 @@ import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKe
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -34,30 +46,42 @@ public class SlotPostService {
 
     private final GroupShiftMessageRepository shiftMsgRepo;
     private final BotConfig config;
+    private final TelegramGateway gateway;
+
+    /** Как часто неизменный пост всё же правится — проверка, что его не удалили руками */
+    @Value("${bot.posts.verify-interval-ms:3600000}")
+    private long verifyIntervalMs;
 
     private static final Locale UA = Locale.forLanguageTag("uk");
     private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy", UA);
     private static final DateTimeFormatter DAY_OF_WEEK = DateTimeFormatter.ofPattern("EEEE", UA);
     private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm", UA);
 
-    public Message publishSlotPost(TelegramLongPollingBot bot, Long chatId, SlotDTO s) throws Exception {
+    /** Публикации и снятие одного поста идут строго друг за другом: следующая видит запись, сохранённую предыдущей */
+    private final Map<PostKey, CompletableFuture<Message>> inFlight = new ConcurrentHashMap<>();
+
+    public CompletableFuture<Message> publishSlotPost(TelegramLongPollingBot bot, Long chatId, SlotDTO s) {
         return publishSlotPost(bot, chatId, s, false, false);
     }
 
-    public synchronized Message publishSlotPost(TelegramLongPollingBot bot,
-                                                Long chatId,
-                                                SlotDTO s,
-                                                boolean morningPost,
-                                                boolean eveningPost) throws Exception {
+    public CompletableFuture<Message> publishSlotPost(TelegramLongPollingBot bot,
+                                                      Long chatId,
+                                                      SlotDTO s,
+                                                      boolean morningPost,
+                                                      boolean eveningPost) {
         return publishSlotPost(bot, chatId, s, morningPost, eveningPost, false);
     }
 
-    public synchronized Message publishSlotPost(TelegramLongPollingBot bot,
-                                                Long chatId,
-                                                SlotDTO s,
-                                                boolean morningPost,
-                                                boolean eveningPost,
-                                                boolean forceNewPost) throws Exception {
+    /**
+     * Ставит публикацию поста в очередь Telegram и сразу возвращается: планировщики не ждут,
+     * пока лимит группы пропустит все посты. Future завершается, когда пост отправлен и сохранён.
+     */
+    public CompletableFuture<Message> publishSlotPost(TelegramLongPollingBot bot,
+                                                      Long chatId,
+                                                      SlotDTO s,
+                                                      boolean morningPost,
+                                                      boolean eveningPost,
+                                                      boolean forceNewPost) {
         int activeBookings = countActiveBookings(s);
         SlotAvailability availability = SlotAvailabilityCalculator.calculate(s.getCapacity(), activeBookings);
 
@@ -93,46 +117,125 @@ public class SlotPostService {
                 !isFinished && !isFull && !isReserved && !isStarted
         );
 
-        Optional<GroupShiftMessage> existingOpt = shiftMsgRepo.findByChatIdAndSlotId(chatId, s.getId());
+        return inOrder(new PostKey(chatId, s.getId()),
+                () -> publish(bot, chatId, s, content, morningPost, eveningPost, forceNewPost));
+    }
 
-        if (existingOpt.isEmpty() || forceNewPost) {
-            return sendAndStore(bot, chatId, s, morningPost, eveningPost, content.text(), content.keyboard(), existingOpt.orElse(null));
-        }
+    /**
+     * Помечает пост завершённым и снимает его с учёта в той же очереди, что и публикации поста:
+     * отстающая публикация не сохранит удалённую запись заново.
+     */
+    public CompletableFuture<Message> retireFinishedPost(TelegramLongPollingBot bot, Long chatId, GroupShiftMessage msg, SlotDTO slot) {
+        return inOrder(new PostKey(chatId, msg.getSlotId()), () -> {
+            Integer messageId = untrack(chatId, msg);
+            return markFinishedPost(bot, chatId, messageId, slot);
+        });
+    }
 
-        GroupShiftMessage record = existingOpt.get();
-        try {
-            Message edited = executeEdit(bot, chatId, record.getMessageId(), content.text(), content.keyboard());
-            storeUpdated(record, edited.getMessageId(), morningPost, eveningPost);
-            return edited;
-        } catch (TelegramApiException e) {
-            if (isMessageMissing(e)) {
-                log.warn("SlotPostService: message {} for slot {} was removed, re-publishing", record.getMessageId(), s.getId());
-                return sendAndStore(bot, chatId, s, morningPost, eveningPost, content.text(), content.keyboard(), record);
-            }
-            log.error("SlotPostService: failed to edit message {} for slot {}: {}", record.getMessageId(), s.getId(), e.getMessage());
-            throw e;
-        }
+    /** Удаляет пост отменённого слота; если удалить не вышло и слот известен — помечает пост отменённым */
+    public CompletableFuture<Message> retireCancelledPost(TelegramLongPollingBot bot, Long chatId, GroupShiftMessage msg, SlotDTO slot) {
+        return inOrder(new PostKey(chatId, msg.getSlotId()), () -> {
+            Integer messageId = untrack(chatId, msg);
+            return deleteSlotPost(bot, chatId, messageId)
+                    .thenApply(deleted -> (Message) null)
+                    .exceptionallyCompose(e -> {
+                        log.warn("SlotPostService: failed to delete cancelled slot message {}: {}", messageId, Futures.unwrap(e).getMessage());
+                        if (slot == null) {
+                            return CompletableFuture.completedFuture(null);
+                        }
+                        return markCancelledPost(bot, chatId, messageId, slot);
+                    });
+        });
+    }
+
+    /** Удаляет запись поста и возвращает id сообщения, под которым пост сейчас в группе */
+    private Integer untrack(Long chatId, GroupShiftMessage msg) {
+        // публикация перед нами могла перевыложить пост под новым id
+        GroupShiftMessage current = shiftMsgRepo.findByChatIdAndSlotId(chatId, msg.getSlotId()).orElse(msg);
+        shiftMsgRepo.delete(current);
+        return current.getMessageId();
     }
 
-    public void markFinishedPost(TelegramLongPollingBot bot, Long chatId, Integer messageId, SlotDTO slot)
-            throws TelegramApiException {
+    private CompletableFuture<Message> markFinishedPost(TelegramLongPollingBot bot, Long chatId, Integer messageId, SlotDTO slot) {
         PostContent content = buildPostContent(slot, "ℹ️ Зміна завершена", "", false);
-        executeEdit(bot, chatId, messageId, content.text(), null);
+        return executeEdit(bot, chatId, messageId, content.text(), null);
     }
 
-    public void markCancelledPost(TelegramLongPollingBot bot, Long chatId, Integer messageId, SlotDTO slot)
-            throws TelegramApiException {
+    private CompletableFuture<Message> markCancelledPost(TelegramLongPollingBot bot, Long chatId, Integer messageId, SlotDTO slot) {
         PostContent content = buildPostContent(slot, "❌ Зміна скасована", "", false);
-        executeEdit(bot, chatId, messageId, content.text(), null);
+        return executeEdit(bot, chatId, messageId, content.text(), null);
     }
 
-    public void deleteSlotPost(TelegramLongPollingBot bot, Long chatId, Integer messageId)
-            throws TelegramApiException {
+    private CompletableFuture<Boolean> deleteSlotPost(TelegramLongPollingBot bot, Long chatId, Integer messageId) {
         DeleteMessage delete = DeleteMessage.builder()
                 .chatId(chatId.toString())
                 .messageId(messageId)
                 .build();
-        bot.execute(delete);
+        return gateway.submit(bot, delete, Lane.CLEANUP);
+    }
+
+    private CompletableFuture<Message> publish(TelegramLongPollingBot bot,
+                                               Long chatId,
+                                               SlotDTO s,
+                                               PostContent content,
+                                               boolean morningPost,
+                                               boolean eveningPost,
+                                               boolean forceNewPost) {
+        Optional<GroupShiftMessage> existingOpt = shiftMsgRepo.findByChatIdAndSlotId(chatId, s.getId());
+
+        if (existingOpt.isEmpty() || forceNewPost) {
+            return sendAndStore(bot, chatId, s, morningPost, eveningPost, content, existingOpt.orElse(null));
+        }
+
+        GroupShiftMessage record = existingOpt.get();
+        long renderHash = renderHash(content);
+        if (Objects.equals(record.getRenderHash(), renderHash) && !verificationDue(record)) {
+            // пост в группе уже такой — в Telegram не идём, в базу пишем только сменившиеся флаги
+            if (record.isMorningPost() != morningPost || record.isEveningPost() != eveningPost) {
+                record.setMorningPost(morningPost);
+                record.setEveningPost(eveningPost);
+                shiftMsgRepo.save(record);
+            }
+            return CompletableFuture.completedFuture(unchangedMessage(record.getMessageId()));
+        }
+
+        // при том же хэше это проверка: «not modified» — пост на месте, «not found» — публикуем заново
+
+        return executeEdit(bot, chatId, record.getMessageId(), content.text(), content.keyboard())
+                .thenApply(edited -> {
+                    storeUpdated(record, edited.getMessageId(), morningPost, eveningPost, renderHash);
+                    return edited;
+                })
+                .exceptionallyCompose(e -> {
+                    Throwable cause = Futures.unwrap(e);
+                    if (cause instanceof TelegramApiException telegramException && isMessageMissing(telegramException)) {
+                        log.warn("SlotPostService: message {} for slot {} was removed, re-publishing", record.getMessageId(), s.getId());
+                        return sendAndStore(bot, chatId, s, morningPost, eveningPost, content, record);
+                    }
+                    log.error("SlotPostService: failed to edit message {} for slot {}: {}", record.getMessageId(), s.getId(), cause.getMessage());
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    /** postedAt — когда Telegram последний раз подтвердил пост отправкой или правкой */
+    private boolean verificationDue(GroupShiftMessage record) {
+        LocalDateTime verifiedAt = record.getPostedAt();
+        return verifiedAt == null || verifiedAt.plus(Duration.ofMillis(verifyIntervalMs)).isBefore(LocalDateTime.now());
+    }
+
+    /** Запускает {@code action}, когда завершится предыдущая операция с тем же постом */
+    private CompletableFuture<Message> inOrder(PostKey key, Supplier<CompletableFuture<Message>> action) {
+        CompletableFuture<Void> turn = new CompletableFuture<>();
+        CompletableFuture<Message> next = turn.thenCompose(ignored -> action.get());
+
+        CompletableFuture<Message> previous = inFlight.put(key, next);
+        next.whenComplete((message, e) -> inFlight.remove(key, next));
+        if (previous == null) {
+            turn.complete(null);
+        } else {
+            previous.whenComplete((message, e) -> turn.complete(null));
+        }
+        return next;
     }
 
     private String buildEmployeeBlock(List<SlotBookingDTO> bookings) {
@@ -161,11 +264,7 @@ public class SlotPostService {
     }
 
     private int countActiveBookings(SlotDTO slot) {
-        List<SlotBookingDTO> bookings = Optional.ofNullable(slot.getBookings()).orElse(Collections.emptyList());
-        if (!bookings.isEmpty()) {
-            return filterActiveBookings(bookings).size();
-        }
-        return slot.getBookedCount();
+        return SlotBookings.activeCount(slot);
     }
 
     private SlotDTO.SlotStatus resolveStatus(SlotDTO slot) {
@@ -270,44 +369,35 @@ public class SlotPostService {
 
     private record PostContent(String text, InlineKeyboardMarkup keyboard) {}
 
-    private Message sendAndStore(TelegramLongPollingBot bot,
-                                 Long chatId,
-                                 SlotDTO slot,
-                                 boolean morningPost,
-                                 boolean eveningPost,
-                                 String text,
-                                 InlineKeyboardMarkup kb) throws Exception {
-        return sendAndStore(bot, chatId, slot, morningPost, eveningPost, text, kb, null);
-    }
-
-    private Message sendAndStore(TelegramLongPollingBot bot,
-                                 Long chatId,
-                                 SlotDTO slot,
-                                 boolean morningPost,
-                                 boolean eveningPost,
-                                 String text,
-                                 InlineKeyboardMarkup kb,
-                                 GroupShiftMessage existing) throws Exception {
-        SendMessage sm = new SendMessage(chatId.toString(), text);
-        sm.setReplyMarkup(kb);
+    private record PostKey(Long chatId, Long slotId) {}
+
+    private CompletableFuture<Message> sendAndStore(TelegramLongPollingBot bot,
+                                                    Long chatId,
+                                                    SlotDTO slot,
+                                                    boolean morningPost,
+                                                    boolean eveningPost,
+                                                    PostContent content,
+                                                    GroupShiftMessage existing) {
+        SendMessage sm = new SendMessage(chatId.toString(), content.text());
+        sm.setReplyMarkup(content.keyboard());
         sm.setParseMode("HTML");
 
-        Message sent = bot.execute(sm);
-
-        GroupShiftMessage record = existing != null ? existing : GroupShiftMessage.builder()
-                .chatId(chatId)
-                .slotId(slot.getId())
-                .build();
+        return gateway.submit(bot, sm, Lane.BULK).thenApply(sent -> {
+            GroupShiftMessage record = existing != null ? existing : GroupShiftMessage.builder()
+                    .chatId(chatId)
+                    .slotId(slot.getId())
+                    .build();
 
-        storeUpdated(record, sent.getMessageId(), morningPost, eveningPost);
-        return sent;
+            storeUpdated(record, sent.getMessageId(), morningPost, eveningPost, renderHash(content));
+            return sent;
+        });
     }
 
-    private Message executeEdit(TelegramLongPollingBot bot,
-                                Long chatId,
-                                Integer messageId,
-                                String newText,
-                                InlineKeyboardMarkup markup) throws TelegramApiException {
+    private CompletableFuture<Message> executeEdit(TelegramLongPollingBot bot,
+                                                   Long chatId,
+                                                   Integer messageId,
+                                                   String newText,
+                                                   InlineKeyboardMarkup markup) {
         EditMessageText edit = EditMessageText.builder()
                 .chatId(chatId.toString())
                 .messageId(messageId)
@@ -316,21 +406,73 @@ public class SlotPostService {
                 .parseMode("HTML")
                 .build();
 
-        return (Message) bot.execute(edit);
+        return gateway.submit(bot, edit, Lane.BULK)
+                .thenApply(Message.class::cast)
+                .exceptionallyCompose(e -> {
+                    Throwable cause = Futures.unwrap(e);
+                    if (cause instanceof TelegramApiException telegramException && isMessageNotModified(telegramException)) {
+                        // текст и клавиатура уже такие — это и есть нужный результат
+                        return CompletableFuture.completedFuture(unchangedMessage(messageId));
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    private Message unchangedMessage(Integer messageId) {
+        Message message = new Message();
+        message.setMessageId(messageId);
+        return message;
     }
 
     private void storeUpdated(GroupShiftMessage existing,
                               Integer newMessageId,
                               boolean morningPost,
-                              boolean eveningPost) {
+                              boolean eveningPost,
+                              long renderHash) {
         existing.setMessageId(newMessageId);
         existing.setPostedAt(LocalDateTime.now());
         existing.setMorningPost(morningPost);
         existing.setEveningPost(eveningPost);
+        existing.setRenderHash(renderHash);
 
         shiftMsgRepo.save(existing);
     }
 
+    /**
+     * SHA-256 (первые 8 байт) текста и клавиатуры: в отличие от {@code hashCode} объектов Telegram
+     * не зависит от версии библиотеки, поэтому хранится в базе и переживает перезапуск.
+     */
+    private long renderHash(PostContent content) {
+        StringBuilder sb = new StringBuilder(content.text());
+        InlineKeyboardMarkup keyboard = content.keyboard();
+        if (keyboard != null && keyboard.getKeyboard() != null) {
+            for (List<InlineKeyboardButton> row : keyboard.getKeyboard()) {
+                sb.append('\u001E');
+                for (InlineKeyboardButton button : row) {
+                    sb.append('\u001F').append(button.getText())
+                            .append('\u001F').append(button.getUrl())
+                            .append('\u001F').append(button.getCallbackData());
+                }
+            }
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest, 0, Long.BYTES).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private boolean isMessageNotModified(TelegramApiException e) {
+        if (e instanceof TelegramApiRequestException requestException) {
+            String apiResponse = Optional.ofNullable(requestException.getApiResponse()).orElse("");
+            String description = Optional.ofNullable(requestException.getMessage()).orElse("");
+            return (apiResponse + " " + description).toLowerCase().contains("message is not modified");
+        }
+        return false;
+    }
+
     private boolean isMessageMissing(TelegramApiException e) {
         if (e instanceof TelegramApiRequestException requestException) {
             Integer code = requestException.getErrorCode();
@@ -1,26 +1,33 @@
 package com.example.group.service;
 
 import com.example.group.controllers.MainBotApiClient;
-import com.example.group.dto.SlotBookingDTO;
+import com.example.group.dto.SlotBatchDTO;
 import com.example.group.dto.SlotDTO;
-import com.example.group.model.Booking;
 import com.example.group.model.GroupShiftMessage;
 import com.example.group.repository.GroupShiftMessageRepository;
 import com.example.group.service.util.SlotAvailabilityCalculator;
 import com.example.group.service.util.SlotAvailabilityCalculator.SlotAvailability;
+import com.example.group.service.util.Futures;
+import com.example.group.service.util.SlotBookings;
 import com.example.group.service.util.TimeUtil;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @Service
@@ -31,8 +38,16 @@ public class SlotPostUpdater {
     private final GroupShiftMessageRepository shiftMsgRepo;
     private final MainBotApiClient api;
     private final SlotPostService slotPostService;
+    private final MainBotEventFeed eventFeed;
 
     private final Map<Long, SlotSnapshot> slotSnapshots = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r);
+        t.setName("slot-post-refresh");
+        t.setDaemon(true);
+        return t;
+    });
 
     private TelegramBot bot;
 
@@ -40,31 +55,98 @@ public class SlotPostUpdater {
         this.bot = bot;
     }
 
+    /** Плановый опрос; пока основной бот присылает события — только страховочный, раз в несколько минут */
     @Scheduled(cron = "0 */1 * * * *")
+    public void pollSlotPosts() {
+        if (eventFeed.shouldPoll("slot-posts")) {
+            refreshSlotPosts();
+        }
+    }
+
+    /**
+     * Обновление постов в фоне — для потоков, обслуживающих пользователей. Запросы, пришедшие
+     * до начала обновления, склеиваются в один проход.
+     */
+    public void requestRefresh() {
+        if (refreshQueued.compareAndSet(false, true)) {
+            refreshExecutor.execute(() -> {
+                refreshQueued.set(false);
+                try {
+                    refreshSlotPosts();
+                } catch (Exception e) {
+                    log.error("SlotPostUpdater: background refresh failed: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
     public void refreshSlotPosts() {
+        Long chatId = resolveChatId();
+        if (chatId == null) {
+            return;
+        }
+        refresh(chatId, shiftMsgRepo.findAllByChatId(chatId));
+    }
+
+    /**
+     * Обновляет посты только указанных слотов.
+     *
+     * @return слоты, у которых в группе ещё нет поста
+     */
+    public Set<Long> refreshSlots(Collection<Long> slotIds) {
+        Long chatId = resolveChatId();
+        if (chatId == null || slotIds.isEmpty()) {
+            return Set.of();
+        }
+
+        List<GroupShiftMessage> messages = shiftMsgRepo.findAllByChatIdAndSlotIdIn(chatId, slotIds);
+        refresh(chatId, messages);
+
+        Set<Long> untracked = new HashSet<>(slotIds);
+        messages.forEach(msg -> untracked.remove(msg.getSlotId()));
+        return untracked;
+    }
+
+    private Long resolveChatId() {
         if (bot == null) {
             log.warn("SlotPostUpdater: bot is not set yet");
-            return;
+            return null;
         }
 
         Long chatId = settingsService.getGroupChatId();
         if (chatId == null || chatId == 0) {
             log.warn("SlotPostUpdater: group chat is not bound yet");
-            return;
+            return null;
         }
+        return chatId;
+    }
 
-        List<GroupShiftMessage> messages = shiftMsgRepo.findAllByChatId(chatId);
+    // плановый опрос и обновление по событию не должны публиковать один пост одновременно
+    private synchronized void refresh(Long chatId, List<GroupShiftMessage> messages) {
         if (messages.isEmpty()) {
             return;
         }
 
-        messages.forEach(msg -> refreshSingle(chatId, msg));
+        // один батч-запрос на все посты вместо 1–3 запросов на каждый
+        SlotBatchDTO batch = api.getSlotsByIds(messages.stream().map(GroupShiftMessage::getSlotId).toList());
+        Map<Long, SlotDTO> active = batch.activeById();
+        Map<Long, SlotDTO> expired = batch.expiredById();
+
+        if (batch.isStale()) {
+            log.warn("SlotPostUpdater: main bot is unavailable, working from last known slots without deleting posts");
+        }
+
+        messages.forEach(msg -> refreshSingle(chatId, msg, active.get(msg.getSlotId()), expired.get(msg.getSlotId()), batch.isStale()));
     }
 
-    private void refreshSingle(Long chatId, GroupShiftMessage msg) {
-        SlotDTO slot = fetchSlot(msg.getSlotId());
+    private void refreshSingle(Long chatId, GroupShiftMessage msg, SlotDTO slot, SlotDTO expired, boolean stale) {
         if (slot == null) {
-            if (handleMissingSlot(chatId, msg)) {
+            if (handleMissingSlot(chatId, msg, expired, stale)) {
                 return;
             }
             log.info("SlotPostUpdater: slot {} not found, keeping post {} for potential re-open", msg.getSlotId(), msg.getMessageId());
@@ -88,34 +170,19 @@ public class SlotPostUpdater {
             return;
         }
 
-        try {
-            slotPostService.publishSlotPost(bot, chatId, slot, msg.isMorningPost(), msg.isEveningPost());
-            slotSnapshots.put(slot.getId(), current);
-        } catch (Exception e) {
-            log.error("SlotPostUpdater: failed to refresh slot {}: {}", slot.getId(), e.getMessage());
-        }
-    }
-
-    private SlotDTO fetchSlot(Long slotId) {
-        SlotDTO slot = api.getSlotById(slotId);
-        if (slot != null) {
-            return slot;
-        }
-
-        try {
-            return api.getUpcomingSlots().stream()
-                    .filter(it -> slotId.equals(it.getId()))
-                    .findFirst()
-                    .orElse(null);
-        } catch (Exception e) {
-            log.warn("SlotPostUpdater: failed to reload slot {} from upcoming list: {}", slotId, e.getMessage());
-            return null;
-        }
+        // снимок запоминается, только когда пост реально обновлён
+        slotPostService.publishSlotPost(bot, chatId, slot, msg.isMorningPost(), msg.isEveningPost())
+                .whenComplete((message, e) -> {
+                    if (e == null) {
+                        slotSnapshots.put(slot.getId(), current);
+                    } else {
+                        log.error("SlotPostUpdater: failed to refresh slot {}: {}", slot.getId(), Futures.unwrap(e).getMessage());
+                    }
+                });
     }
 
-    private boolean handleMissingSlot(Long chatId, GroupShiftMessage msg) {
+    private boolean handleMissingSlot(Long chatId, GroupShiftMessage msg, SlotDTO expired, boolean stale) {
         Long slotId = msg.getSlotId();
-        SlotDTO expired = api.getExpiredSlotById(slotId);
         if (expired != null) {
             if (isSlotFinished(expired)) {
                 log.info("SlotPostUpdater: slot {} is expired, updating post {}", slotId, msg.getMessageId());
@@ -127,6 +194,11 @@ public class SlotPostUpdater {
             return true;
         }
 
+        if (stale) {
+            // основной бот не ответил — отсутствие слота ничего не доказывает
+            return false;
+        }
+
         log.info("SlotPostUpdater: slot {} is removed, deleting post {}", slotId, msg.getMessageId());
         cleanupCancelledSlotPost(chatId, msg, null);
         return true;
@@ -143,12 +215,11 @@ public class SlotPostUpdater {
     }
 
     private void cleanupSlotPost(Long chatId, GroupShiftMessage msg, SlotDTO slot) {
-        try {
-            slotPostService.markFinishedPost(bot, chatId, msg.getMessageId(), slot);
-        } catch (TelegramApiException e) {
-            log.warn("SlotPostUpdater: failed to mark finished slot message {}: {}", msg.getMessageId(), e.getMessage());
-        }
-        shiftMsgRepo.delete(msg);
+        slotPostService.retireFinishedPost(bot, chatId, msg, slot)
+                .exceptionally(e -> {
+                    log.warn("SlotPostUpdater: failed to mark finished slot message {}: {}", msg.getMessageId(), Futures.unwrap(e).getMessage());
+                    return null;
+                });
         slotSnapshots.remove(msg.getSlotId());
     }
 
@@ -159,73 +230,40 @@ public class SlotPostUpdater {
             return;
         }
 
-        try {
-            slotPostService.publishSlotPost(bot, chatId, slot, msg.isMorningPost(), msg.isEveningPost());
-            slotSnapshots.put(slot.getId(), current);
-        } catch (Exception e) {
-            log.error("SlotPostUpdater: failed to refresh missing slot {}: {}", slot.getId(), e.getMessage());
-        }
+        slotPostService.publishSlotPost(bot, chatId, slot, msg.isMorningPost(), msg.isEveningPost())
+                .whenComplete((message, e) -> {
+                    if (e == null) {
+                        slotSnapshots.put(slot.getId(), current);
+                    } else {
+                        log.error("SlotPostUpdater: failed to refresh missing slot {}: {}", slot.getId(), Futures.unwrap(e).getMessage());
+                    }
+                });
     }
 
     private void cleanupCancelledSlotPost(Long chatId, GroupShiftMessage msg, SlotDTO slot) {
-        boolean deleted = false;
-        try {
-            slotPostService.deleteSlotPost(bot, chatId, msg.getMessageId());
-            deleted = true;
-        } catch (TelegramApiException e) {
-            log.warn("SlotPostUpdater: failed to delete cancelled slot message {}: {}", msg.getMessageId(), e.getMessage());
-        }
-
-        if (!deleted && slot != null) {
-            try {
-                slotPostService.markCancelledPost(bot, chatId, msg.getMessageId(), slot);
-            } catch (TelegramApiException e) {
-                log.warn("SlotPostUpdater: failed to archive cancelled slot message {}: {}", msg.getMessageId(), e.getMessage());
-            }
-        }
-
-        shiftMsgRepo.delete(msg);
+        slotPostService.retireCancelledPost(bot, chatId, msg, slot)
+                .exceptionally(e -> {
+                    log.warn("SlotPostUpdater: failed to archive cancelled slot message {}: {}", msg.getMessageId(), Futures.unwrap(e).getMessage());
+                    return null;
+                });
         slotSnapshots.remove(msg.getSlotId());
     }
 
     private SlotSnapshot captureSnapshot(SlotDTO slot, boolean started) {
-        int activeCount = countActiveBookings(slot);
+        // счётчик и отпечаток участников — без разбора самих заявок
+        int activeCount = SlotBookings.activeCount(slot);
         SlotAvailability availability = SlotAvailabilityCalculator.calculate(slot.getCapacity(), activeCount);
 
-        List<String> participants = Optional.ofNullable(slot.getBookings())
-                .orElse(List.of())
-                .stream()
-                .filter(this::isActiveBooking)
-                .map(this::bookingSignature)
-                .toList();
-
         return new SlotSnapshot(
                 slot.getCapacity(),
                 activeCount,
                 availability.availablePlaces(),
-                participants,
+                SlotBookings.activeFingerprint(slot),
                 resolveStatus(slot),
                 started
         );
     }
 
-    private int countActiveBookings(SlotDTO slot) {
-        List<SlotBookingDTO> bookings = Optional.ofNullable(slot.getBookings()).orElse(List.of());
-        if (!bookings.isEmpty()) {
-            return (int) bookings.stream()
-                    .filter(this::isActiveBooking)
-                    .count();
-        }
-
-        return slot.getBookedCount();
-    }
-
-    private boolean isActiveBooking(SlotBookingDTO booking) {
-        Booking.BookingStatus status = Optional.ofNullable(booking.getStatus())
-                .orElse(Booking.BookingStatus.PENDING);
-        return status == Booking.BookingStatus.CONFIRMED || status == Booking.BookingStatus.PENDING;
-    }
-
     private SlotDTO.SlotStatus resolveStatus(SlotDTO slot) {
         if (slot == null) {
             return SlotDTO.SlotStatus.READY;
@@ -234,17 +272,10 @@ public class SlotPostUpdater {
         return Optional.ofNullable(slot.getStatus()).orElse(SlotDTO.SlotStatus.READY);
     }
 
-    private String bookingSignature(SlotBookingDTO booking) {
-        String first = Optional.ofNullable(booking.getFirstName()).orElse("").trim();
-        String last = Optional.ofNullable(booking.getLastName()).orElse("").trim();
-        String status = Optional.ofNullable(booking.getStatus()).map(Enum::name).orElse("PENDING");
-        return status + ":" + first + ":" + last;
-    }
-
     private record SlotSnapshot(int capacity,
                                 int activeBookings,
                                 int freePlaces,
-                                List<String> participants,
+                                long participants,
                                 SlotDTO.SlotStatus status,
                                 boolean started) {
         @Override
@@ -256,7 +287,7 @@ public class SlotPostUpdater {
                     && freePlaces == that.freePlaces
                     && started == that.started
                     && status == that.status
-                    && Objects.equals(participants, that.participants);
+                    && participants == that.participants;
         }
 
         @Override
@@ -1,19 +1,20 @@
 package com.example.group.service;
 
+import com.example.group.dto.TableFingerprint;
 import com.example.group.model.City;
 import com.example.group.model.Place;
 import com.example.group.repository.CityRepository;
 import com.example.group.repository.PlaceRepository;
+import com.example.group.service.util.StopWordAutomaton;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
@@ -23,12 +24,27 @@ public class StopWordService {
     private final CityRepository cityRepository;
     private final PlaceRepository placeRepository;
 
-    private final Set<String> stopWords = ConcurrentHashMap.newKeySet();
+    /** Через сколько пропущенных обновлений перечитать словарь без оглядки на отпечаток */
+    @Value("${bot.stopwords.full-reload-every:12}")
+    private int fullReloadEvery;
+
+    /** Словарь целиком; читатели берут ссылку один раз и не видят полуобновлённого состояния */
+    private volatile Dictionary dictionary = Dictionary.EMPTY;
+
+    // трогаются только из refreshStopWords
+    private Fingerprint loadedFingerprint;
+    private int skippedRefreshes;
 
     @PostConstruct
     @Scheduled(fixedDelay = 300_000, initialDelay = 0)
-    public void refreshStopWords() {
+    public synchronized void refreshStopWords() {
         try {
+            Fingerprint fingerprint = new Fingerprint(cityRepository.fingerprint(), placeRepository.fingerprint());
+            if (fingerprint.equals(loadedFingerprint) && ++skippedRefreshes < fullReloadEvery) {
+                log.debug("Stop-words unchanged, refresh skipped");
+                return;
+            }
+
             Set<String> updated = new HashSet<>();
 
             cityRepository.findByVisibleTrue()
@@ -44,9 +60,10 @@ public class StopWordService {
                         }
                     });
 
-            stopWords.clear();
-            stopWords.addAll(updated);
-            log.info("Stop-words refreshed: {} entries", stopWords.size());
+            dictionary = new Dictionary(Set.copyOf(updated), StopWordAutomaton.build(updated));
+            loadedFingerprint = fingerprint;
+            skippedRefreshes = 0;
+            log.info("Stop-words refreshed: {} entries", updated.size());
         } catch (Exception e) {
             log.warn("Failed to refresh stop-words: {}", e.getMessage());
         }
@@ -62,12 +79,7 @@ public class StopWordService {
             return false;
         }
 
-        if (stopWords.contains(normalized)) {
-            return true;
-        }
-
-        // treat partial matches as stop-words too: any overlapping token counts
-        return stopWords.stream().anyMatch(sw -> sw.contains(normalized) || normalized.contains(sw));
+        return dictionary.matches(normalized);
     }
 
     public boolean containsAnyLocationToken(String text) {
@@ -80,11 +92,13 @@ public class StopWordService {
             return false;
         }
 
+        Dictionary current = dictionary;
         for (String token : normalized.split("\\s+")) {
             if (token.isBlank()) {
                 continue;
             }
-            if (isStopWordToken(token)) {
+            String normalizedToken = normalize(token);
+            if (!normalizedToken.isEmpty() && current.matches(normalizedToken)) {
                 return true;
             }
         }
@@ -92,7 +106,7 @@ public class StopWordService {
     }
 
     public Set<String> snapshot() {
-        return Collections.unmodifiableSet(stopWords);
+        return dictionary.words();
     }
 
     private void addTokens(Set<String> target, String text) {
@@ -112,4 +126,18 @@ public class StopWordService {
                 .replaceAll("[^\\p{L}\\p{N}]+", " ")
                 .trim();
     }
+
+    private record Dictionary(Set<String> words, StopWordAutomaton automaton) {
+        static final Dictionary EMPTY = new Dictionary(Set.of(), StopWordAutomaton.EMPTY);
+
+        boolean matches(String normalized) {
+            if (words.contains(normalized)) {
+                return true;
+            }
+            // treat partial matches as stop-words too: any overlapping token counts
+            return automaton.containsAny(normalized) || automaton.isPartOfAny(normalized);
+        }
+    }
+
+    private record Fingerprint(TableFingerprint cities, TableFingerprint places) {}
 }
@@ -6,8 +6,12 @@ import com.example.group.dto.ParsedShiftRequest;
 import com.example.group.dto.SlotDTO;
 import com.example.group.service.BotSettingsService;
 import com.example.group.service.BookingRequestCache;
+import com.example.group.service.TelegramGateway.Lane;
+import com.example.group.service.exception.MainBotUnavailableException;
 import com.example.group.repository.GroupShiftMessageRepository;
+import com.example.group.service.parser.ParsedMessage;
 import com.example.group.service.util.MessageCleaner;
+import com.example.group.service.util.UpdateIdDedupe;
 import com.example.group.repository.UserFlowStateRepository;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -24,12 +28,7 @@ import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKe
 
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -55,13 +54,14 @@ public class TelegramBot extends TelegramLongPollingBot {
     private final GroupShiftMessageRepository shiftMsgRepo;
     private final UserFlowStateRepository flowStateRepo;
     private final MainBotApiClient mainApi;
+    private final SlotCatalog slotCatalog;
+    private final UpdateDispatcher dispatcher;
+    private final ShiftRequestPrefilter prefilter;
+    private final TelegramGateway gateway;
 
     private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
     private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
 
-    private final ExecutorService defaultExecutor = Executors.newCachedThreadPool();
-    private final ConcurrentHashMap<Long, ExecutorService> chatExecutors = new ConcurrentHashMap<>();
-
 
     @Override
     public String getBotUsername() {
@@ -75,28 +75,10 @@ public class TelegramBot extends TelegramLongPollingBot {
 
 
     private static final int DEDUPE_CAP = 10000;
-    private final ConcurrentLinkedQueue<Integer> dedupeQueue = new ConcurrentLinkedQueue<>();
-    private final Set<Integer> processedUpdates = ConcurrentHashMap.newKeySet();
+    private final UpdateIdDedupe processedUpdates = new UpdateIdDedupe(DEDUPE_CAP);
 
     private boolean markSeen(int updateId) {
-        if (processedUpdates.add(updateId)) {
-            dedupeQueue.add(updateId);
-            while (dedupeQueue.size() > DEDUPE_CAP) {
-                Integer old = dedupeQueue.poll();
-                if (old != null) processedUpdates.remove(old);
-            }
-            return true;
-        }
-        return false;
-    }
-
-    private ExecutorService execFor(long chatId) {
-        return chatExecutors.computeIfAbsent(chatId, id -> Executors.newSingleThreadExecutor(r -> {
-            Thread t = new Thread(r);
-            t.setName("chat-" + id);
-            t.setDaemon(true);
-            return t;
-        }));
+        return processedUpdates.markSeen(updateId);
     }
 
     @PostConstruct
@@ -123,6 +105,9 @@ public class TelegramBot extends TelegramLongPollingBot {
                 if (!isGeneralMessage(msg)) {
                     return;
                 }
+                if (!prefilter.accept(msg.getText())) {
+                    return;
+                }
             }
         }
 
@@ -131,13 +116,7 @@ public class TelegramBot extends TelegramLongPollingBot {
             return;
         }
 
-        Long chatId = extractChatId(update);
-        if (chatId == null) {
-            defaultExecutor.submit(() -> safeHandle(update));
-            return;
-        }
-
-        execFor(chatId).submit(() -> safeHandle(update));
+        dispatcher.dispatch(extractChatId(update), () -> safeHandle(update));
     }
 
     private void safeHandle(Update u) {
@@ -184,10 +163,9 @@ public class TelegramBot extends TelegramLongPollingBot {
     private void handleMessage(Message msg) {
         String text = msg.getText().trim();
 
+        // разбор — только когда сообщение дошло до ветки, которой он нужен
         if (msg.getReplyToMessage() != null) {
-            if (tryHandleReplyFlow(msg)) {
-                return;
-            }
+            tryHandleReplyFlow(msg, text);
             return;
         }
 
@@ -200,11 +178,7 @@ public class TelegramBot extends TelegramLongPollingBot {
             return;
         }
 
-        if (msg.getReplyToMessage() != null && tryHandleReplyFlow(msg)) {
-            return;
-        }
-
-        handlePatternMessage(msg);
+        handlePatternMessage(msg, text);
     }
 
     // ============================================================
@@ -217,10 +191,10 @@ public class TelegramBot extends TelegramLongPollingBot {
         boolean isGroup = "group".equalsIgnoreCase(chatType) || "supergroup".equalsIgnoreCase(chatType);
 
         if (!isGroup) {
-            execute(new SendMessage(
+            gateway.execute(this, new SendMessage(
                     msg.getChatId().toString(),
                     "Бот доступний тільки в групі"
-            ));
+            ), Lane.INTERACTIVE);
             return;
         }
 
@@ -229,20 +203,20 @@ public class TelegramBot extends TelegramLongPollingBot {
 
         leaderboardUpdater.updatePinnedLeaderboard(this);
 
-        execute(new SendMessage(
+        gateway.execute(this, new SendMessage(
                 chatId.toString(),
                 "✅ Прив'язано. Бот працює тут"
-        ));
+        ), Lane.INTERACTIVE);
     }
 
     @SneakyThrows
-    private void handlePatternMessage(Message msg) {
+    private void handlePatternMessage(Message msg, String text) {
 
         Long chatId = msg.getChatId();
         Long userId = msg.getFrom().getId();
-        String text = msg.getText().trim();
 
-        var parsedOpt = patternParser.parse(text);
+        ParsedMessage parsed = patternParser.parseMessage(text);
+        var parsedOpt = parsed.shiftRequest();
         if (parsedOpt.isEmpty()) return; // сообщение не по шаблону
 
         var req = parsedOpt.get();
@@ -250,18 +224,30 @@ public class TelegramBot extends TelegramLongPollingBot {
 
         Runnable cleanupUserMessage = () -> cleaner.deleteLater(this, chatId, msg.getMessageId(), 15);
 
-        var matchResult = slotService.findMatchingSlot(req);
+        SlotMatchResult matchResult;
+        try {
+            matchResult = slotService.findMatchingSlot(req);
+        } catch (MainBotUnavailableException e) {
+            // каталог ещё не загружен, а основной бот не отвечает — это не «смены нет»
+            log.warn("Slot search failed: {}", e.getMessage());
+            Message reply = gateway.execute(this, new SendMessage(
+                    chatId.toString(),
+                    "⚠️ Головний бот зараз недоступний. Спробуй за хвилину."
+            ), Lane.INTERACTIVE);
+            cleaner.deleteLater(this, chatId, reply.getMessageId(), 15);
+            return;
+        }
         if (!matchResult.found()) {
-            Message reply = execute(new SendMessage(
+            Message reply = gateway.execute(this, new SendMessage(
                     chatId.toString(),
                     "⚠️ Не знайшов такої зміни. Перевір, чи все ввів правильно"
-            ));
+            ), Lane.INTERACTIVE);
             cleaner.deleteLater(this, chatId, reply.getMessageId(), 15);
             cleanupUserMessage.run();
             return;
         }
 
-        askForBookingIntent(msg, req.getUserFullName(), matchResult.slots(), null);
+        askForBookingIntent(msg, parsed, req.getUserFullName(), matchResult.slots(), null);
     }
 
     private boolean hasValidName(String name) {
@@ -276,14 +262,14 @@ public class TelegramBot extends TelegramLongPollingBot {
     private boolean ensureValidNamePresent(BookingRequestCache.BookingRequestState state) {
         String name = state.getUserFullName();
         if (!hasValidName(name)) {
-            name = patternParser.extractNameOnly(state.getUserMessage().getText()).orElse(null);
+            name = state.getParsedMessage().name().orElse(null);
         }
 
         if (!hasValidName(name)) {
-            Message reply = execute(new SendMessage(
+            Message reply = gateway.execute(this, new SendMessage(
                     state.getChatId().toString(),
                     "ℹ️ Спробуй ще раз, будь ласка.\nВведи ім’я та прізвище (два слова) у своєму наступному повідомленні."
-            ));
+            ), Lane.INTERACTIVE);
             cleaner.deleteLater(this, state.getChatId(), reply.getMessageId(), 5);
             cleaner.deleteLater(this, state.getChatId(), state.getUserMessage().getMessageId(), 5);
             requestCache.remove(state.getToken());
@@ -352,7 +338,7 @@ public class TelegramBot extends TelegramLongPollingBot {
     }
 
     @SneakyThrows
-    private boolean tryHandleReplyFlow(Message msg) {
+    private boolean tryHandleReplyFlow(Message msg, String text) {
         Long chatId = msg.getChatId();
         Integer replyId = msg.getReplyToMessage().getMessageId();
 
@@ -362,34 +348,47 @@ public class TelegramBot extends TelegramLongPollingBot {
         }
 
         Long slotId = shiftMessageOpt.get().getSlotId();
-        SlotDTO slot = mainApi.getSlotById(slotId);
+        SlotDTO slot;
+        try {
+            // пост ведёт на ближайший слот — почти всегда он уже в каталоге
+            slot = slotCatalog.findById(slotId).orElseGet(() -> mainApi.getSlotById(slotId));
+        } catch (MainBotUnavailableException e) {
+            log.warn("Slot {} lookup failed: {}", slotId, e.getMessage());
+            Message reply = gateway.execute(this, new SendMessage(
+                    chatId.toString(),
+                    "⚠️ Головний бот зараз недоступний. Спробуй за хвилину."
+            ), Lane.INTERACTIVE);
+            cleaner.deleteLater(this, chatId, reply.getMessageId(), 15);
+            return true;
+        }
         if (slot == null) {
-            Message reply = execute(new SendMessage(
+            Message reply = gateway.execute(this, new SendMessage(
                     chatId.toString(),
                     "⚠️ Не можу знайти цю зміну, чи вона повна. Спробуй іншу."
-            ));
+            ), Lane.INTERACTIVE);
             cleaner.deleteLater(this, chatId, reply.getMessageId(), 15);
             cleaner.deleteLater(this, chatId, msg.getMessageId(), 15);
             return true;
         }
 
-        String name = patternParser.extractNameOnly(msg.getText()).orElse(null);
-        askForBookingIntent(msg, name, List.of(slot), msg.getReplyToMessage().getMessageId());
+        ParsedMessage parsed = patternParser.parseMessage(text);
+        String name = parsed.name().orElse(null);
+        askForBookingIntent(msg, parsed, name, List.of(slot), msg.getReplyToMessage().getMessageId());
         return true;
     }
 
     @SneakyThrows
-    private void askForBookingIntent(Message msg, String userFullName, List<SlotDTO> slots, Integer replyToMessageId) {
+    private void askForBookingIntent(Message msg, ParsedMessage parsed, String userFullName, List<SlotDTO> slots, Integer replyToMessageId) {
         if (slots == null || slots.isEmpty()) {
-            Message reply = execute(new SendMessage(
+            Message reply = gateway.execute(this, new SendMessage(
                     msg.getChatId().toString(),
                     "⚠️ Не знайшов такої зміни. Перевір, чи все ввів правильно"
-            ));
+            ), Lane.INTERACTIVE);
             cleaner.deleteLater(this, msg.getChatId(), reply.getMessageId(), 15);
             return;
         }
 
-        String token = requestCache.store(msg, userFullName, slots);
+        String token = requestCache.store(msg, parsed, userFullName, slots);
         SendMessage prompt = new SendMessage(
                 msg.getChatId().toString(),
                 "Хочете записатися на зміну?"
@@ -397,7 +396,7 @@ public class TelegramBot extends TelegramLongPollingBot {
         prompt.setReplyToMessageId(replyToMessageId != null ? replyToMessageId : msg.getMessageId());
         prompt.setReplyMarkup(buildIntentKeyboard(token));
 
-        Message promptMessage = execute(prompt);
+        Message promptMessage = gateway.execute(this, prompt, Lane.INTERACTIVE);
         requestCache.get(token).ifPresent(state -> {
             state.setControlMessageId(promptMessage.getMessageId());
             requestCache.update(state);
@@ -443,14 +442,16 @@ public class TelegramBot extends TelegramLongPollingBot {
             return;
         }
 
-        cleaner.deleteNow(this, cbq.getMessage().getChatId(), cbq.getMessage().getMessageId());
-
         if ("NO".equalsIgnoreCase(decision)) {
             requestCache.remove(token);
+            // ответ до удаления: удаление встаёт в очередь уборки и не должно задерживать колбэк
             answer(cbq.getId(), "Добре, нічого не роблю.");
+            cleaner.deleteNow(this, cbq.getMessage().getChatId(), cbq.getMessage().getMessageId());
             return;
         }
 
+        cleaner.deleteNow(this, cbq.getMessage().getChatId(), cbq.getMessage().getMessageId());
+
         if (!ensureValidNamePresent(state)) {
             answer(cbq.getId(), "ℹ️ Додай ім'я та прізвище у повідомленні");
             return;
@@ -552,7 +553,7 @@ public class TelegramBot extends TelegramLongPollingBot {
         if (state.getControlMessageId() == null) {
             SendMessage message = new SendMessage(state.getChatId().toString(), text);
             message.setReplyMarkup(buildSlotNavigationKeyboard(state.getToken(), total));
-            Message sent = execute(message);
+            Message sent = gateway.execute(this, message, Lane.INTERACTIVE);
             state.setControlMessageId(sent.getMessageId());
         } else {
             EditMessageText edit = new EditMessageText();
@@ -561,7 +562,7 @@ public class TelegramBot extends TelegramLongPollingBot {
             edit.setText(text);
             edit.setReplyMarkup(buildSlotNavigationKeyboard(state.getToken(), total));
 
-            Message edited = (Message) execute(edit);
+            Message edited = (Message) gateway.execute(this, edit, Lane.INTERACTIVE);
             state.setControlMessageId(edited.getMessageId());
         }
 
@@ -627,19 +628,20 @@ public class TelegramBot extends TelegramLongPollingBot {
         );
     }
 
-    @SneakyThrows
     public void publishSlotPost(Long chatId, SlotDTO slot) {
-        slotPostService.publishSlotPost(this, chatId, slot);
+        slotPostService.publishSlotPost(this, chatId, slot).join();
     }
 
     private void answer(String callbackId, String text) {
         try {
-            execute(
+            gateway.execute(
+                    this,
                     AnswerCallbackQuery.builder()
                             .callbackQueryId(callbackId)
                             .text(text)
                             .showAlert(false)
-                            .build()
+                            .build(),
+                    Lane.CALLBACK
             );
         } catch (Exception ignored) {}
     }
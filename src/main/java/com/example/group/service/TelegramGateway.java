@@ -0,0 +1,405 @@
+package com.example.group.service;
+
+import com.example.group.service.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.pinnedmessages.PinChatMessage;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.DeleteMessage;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageReplyMarkup;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+import org.telegram.telegrambots.meta.bots.AbsSender;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Единая точка для исходящих вызовов Telegram. Вызовы ждут в очередях по приоритетам
+ * ({@link Lane}) и уходят, когда есть токен в глобальном бакете ({@code bot.outbound.global-per-second})
+ * и в бакете чата ({@code bot.outbound.chat-per-minute}). Уборка и массовые обновления
+ * не берут последние {@code bot.outbound.chat-reserve} токенов чата — они остаются для ответов людям.
+ * На 429 с {@code retry_after} чат (или весь бот) замирает на указанное время, а вызов повторяется.
+ * <p>
+ * {@link #execute} ждёт ответа Telegram не дольше {@code bot.outbound.max-wait-ms} — для ответов людям,
+ * где нужен результат. Планировщики и уборка используют {@link #submit} и не ждут вовсе:
+ * массовая публикация может растянуться на минуты из-за лимита группы.
+ */
+@Slf4j
+@Service
+public class TelegramGateway {
+
+    /** Приоритеты: чем раньше в списке, тем раньше уходит вызов */
+    public enum Lane {
+        /** ответы на нажатия кнопок — Telegram показывает «часики», пока их нет */
+        CALLBACK,
+        /** запросы и подтверждения в ходе записи */
+        INTERACTIVE,
+        /** удаление служебных сообщений */
+        CLEANUP,
+        /** публикация и обновление постов смен, таблица лидеров */
+        BULK;
+
+        private boolean usesReserve() {
+            return this == CLEANUP || this == BULK;
+        }
+    }
+
+    private static final int MAX_IDLE_CHAT_BUCKETS = 1024;
+    private static final long MAX_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<Lane, Deque<Task<?>>> queues = new EnumMap<>(Lane.class);
+    private final Map<Lane, AtomicInteger> depths = new EnumMap<>(Lane.class);
+    private final Map<Lane, Counter> sentCounters = new EnumMap<>(Lane.class);
+    private final Map<Lane, Counter> rejectedCounters = new EnumMap<>(Lane.class);
+    private final Map<Lane, Counter> expiredCounters = new EnumMap<>(Lane.class);
+    private final Map<Lane, Timer> waitTimers = new EnumMap<>(Lane.class);
+    private final Map<String, TokenBucket> chatBuckets = new HashMap<>();
+    private final TokenBucket globalBucket;
+    private final Counter retryCounter;
+
+    private final double chatBurst;
+    private final double chatPerSecond;
+    private final double chatReserve;
+    private final int queueCapacity;
+    private final int maxRetries;
+    private final long maxWaitMs;
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread scheduler;
+    private volatile boolean running = true;
+
+    public TelegramGateway(MeterRegistry meterRegistry,
+                           @Value("${bot.outbound.global-per-second:30}") double globalPerSecond,
+                           @Value("${bot.outbound.chat-per-minute:20}") double chatPerMinute,
+                           @Value("${bot.outbound.chat-burst:10}") double chatBurst,
+                           @Value("${bot.outbound.chat-reserve:3}") double chatReserve,
+                           @Value("${bot.outbound.queue-capacity:500}") int queueCapacity,
+                           @Value("${bot.outbound.max-retries:3}") int maxRetries,
+                           @Value("${bot.outbound.max-wait-ms:15000}") long maxWaitMs) {
+        long now = System.nanoTime();
+        this.globalBucket = new TokenBucket(globalPerSecond, globalPerSecond, now);
+        this.chatBurst = chatBurst;
+        this.chatPerSecond = chatPerMinute / 60d;
+        this.chatReserve = chatReserve;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.maxWaitMs = Math.max(1, maxWaitMs);
+
+        for (Lane lane : Lane.values()) {
+            queues.put(lane, new ArrayDeque<>());
+            AtomicInteger depth = new AtomicInteger();
+            depths.put(lane, depth);
+            String tag = lane.name().toLowerCase();
+
+            Gauge.builder("telegram.outbound.queue.depth", depth, AtomicInteger::get)
+                    .description("Telegram calls waiting for a rate limit token")
+                    .tag("lane", tag)
+                    .register(meterRegistry);
+            sentCounters.put(lane, Counter.builder("telegram.outbound.sent")
+                    .description("Telegram calls sent through the outbound gateway")
+                    .tag("lane", tag)
+                    .register(meterRegistry));
+            rejectedCounters.put(lane, Counter.builder("telegram.outbound.rejected")
+                    .description("Telegram calls rejected because the lane queue was full")
+                    .tag("lane", tag)
+                    .register(meterRegistry));
+            expiredCounters.put(lane, Counter.builder("telegram.outbound.expired")
+                    .description("Telegram calls withdrawn because the caller stopped waiting")
+                    .tag("lane", tag)
+                    .register(meterRegistry));
+            waitTimers.put(lane, Timer.builder("telegram.outbound.wait")
+                    .description("Time a Telegram call spent queued before sending")
+                    .tag("lane", tag)
+                    .register(meterRegistry));
+        }
+        this.retryCounter = Counter.builder("telegram.outbound.retry")
+                .description("Telegram calls retried after 429 with retry_after")
+                .register(meterRegistry);
+
+        this.scheduler = new Thread(this::schedule, "telegram-outbound");
+        this.scheduler.setDaemon(true);
+        this.scheduler.start();
+    }
+
+    /**
+     * Выполняет вызов и ждёт ответа Telegram; ошибки — как у {@code bot.execute}. Если вызов
+     * не ушёл за {@code bot.outbound.max-wait-ms}, он снимается с очереди и бросается исключение.
+     */
+    public <T extends Serializable, M extends BotApiMethod<T>> T execute(AbsSender bot, M method, Lane lane)
+            throws TelegramApiException {
+        Task<T> task = new Task<>(bot, method, lane, chatIdOf(method), System.nanoTime());
+        enqueue(task);
+
+        try {
+            return task.result.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (withdraw(task)) {
+                throw new TelegramApiException("Outbound " + lane + " " + method.getMethod()
+                        + " was not sent within " + maxWaitMs + " ms");
+            }
+            // уже отправляется — дождёмся, ответ вот-вот будет
+            return await(task.result, method);
+        } catch (InterruptedException e) {
+            withdraw(task);
+            Thread.currentThread().interrupt();
+            throw new TelegramApiException("Interrupted while waiting for " + method.getMethod(), e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Ставит вызов в очередь и сразу возвращает его результат. Отмена future снимает вызов
+     * с очереди, если он ещё не ушёл. Переполненная очередь — future с ошибкой.
+     */
+    public <T extends Serializable, M extends BotApiMethod<T>> CompletableFuture<T> submit(AbsSender bot, M method, Lane lane) {
+        Task<T> task = new Task<>(bot, method, lane, chatIdOf(method), System.nanoTime());
+        try {
+            enqueue(task);
+        } catch (TelegramApiException e) {
+            task.result.completeExceptionally(e);
+        }
+        return task.result;
+    }
+
+    private void enqueue(Task<?> task) throws TelegramApiException {
+        lock.lock();
+        try {
+            if (!running) {
+                throw new TelegramApiException("Outbound gateway is stopped");
+            }
+            Deque<Task<?>> queue = queues.get(task.lane);
+            if (queue.size() >= queueCapacity) {
+                rejectedCounters.get(task.lane).increment();
+                throw new TelegramApiException("Outbound " + task.lane + " queue is full (" + queue.size() + ")");
+            }
+            queue.addLast(task);
+            depths.get(task.lane).incrementAndGet();
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Снимает ещё не отправленный вызов с очереди; false — он уже ушёл */
+    private boolean withdraw(Task<?> task) {
+        lock.lock();
+        try {
+            if (!queues.get(task.lane).remove(task)) {
+                return false;
+            }
+            depths.get(task.lane).decrementAndGet();
+            expiredCounters.get(task.lane).increment();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> result, BotApiMethod<?> method) throws TelegramApiException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TelegramApiException("Interrupted while waiting for " + method.getMethod(), e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static TelegramApiException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof TelegramApiException telegramException) {
+            return telegramException;
+        }
+        return new TelegramApiException(e.getCause());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lock.lock();
+        try {
+            running = false;
+            for (Lane lane : Lane.values()) {
+                Deque<Task<?>> queue = queues.get(lane);
+                queue.forEach(task -> task.result.completeExceptionally(
+                        new TelegramApiException("Outbound gateway is stopped")));
+                queue.clear();
+                depths.get(lane).set(0);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        scheduler.interrupt();
+        senders.shutdown();
+    }
+
+    private void schedule() {
+        while (running) {
+            Task<?> task;
+            lock.lock();
+            try {
+                task = awaitNext();
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            if (task != null) {
+                senders.execute(() -> send(task));
+            }
+        }
+    }
+
+    /** Под блокировкой: ждёт вызов, для которого есть токены, и забирает его из очереди */
+    private Task<?> awaitNext() throws InterruptedException {
+        while (running) {
+            long now = System.nanoTime();
+            long wait = globalBucket.nanosUntilAvailable(0, now);
+            if (wait == 0) {
+                long chatWait = Long.MAX_VALUE;
+                for (Lane lane : Lane.values()) {
+                    Iterator<Task<?>> it = queues.get(lane).iterator();
+                    while (it.hasNext()) {
+                        Task<?> task = it.next();
+                        if (task.result.isDone()) {
+                            // отменён через future из submit
+                            it.remove();
+                            depths.get(lane).decrementAndGet();
+                            continue;
+                        }
+                        TokenBucket chat = chatBucket(task.chatId, now);
+                        double reserve = task.lane.usesReserve() ? chatReserve : 0;
+                        if (chat != null && !chat.tryTake(reserve, now)) {
+                            // чат занят — следующий вызов в той же очереди может идти в другой чат
+                            chatWait = Math.min(chatWait, chat.nanosUntilAvailable(reserve, now));
+                            continue;
+                        }
+                        globalBucket.tryTake(0, now);
+                        it.remove();
+                        depths.get(lane).decrementAndGet();
+                        return task;
+                    }
+                }
+                wait = chatWait;
+            }
+
+            if (wait == Long.MAX_VALUE) {
+                changed.await();
+            } else {
+                changed.awaitNanos(Math.max(1, Math.min(wait, MAX_WAIT_NANOS)));
+            }
+        }
+        return null;
+    }
+
+    private <T extends Serializable> void send(Task<T> task) {
+        waitTimers.get(task.lane).record(System.nanoTime() - task.enqueuedAt, TimeUnit.NANOSECONDS);
+        try {
+            T response = task.bot.execute(task.method);
+            sentCounters.get(task.lane).increment();
+            task.result.complete(response);
+        } catch (TelegramApiRequestException e) {
+            Integer retryAfter = e.getParameters() != null ? e.getParameters().getRetryAfter() : null;
+            if (Integer.valueOf(429).equals(e.getErrorCode()) && retryAfter != null && task.attempts < maxRetries) {
+                retryLater(task, retryAfter);
+                return;
+            }
+            task.result.completeExceptionally(e);
+        } catch (Exception e) {
+            task.result.completeExceptionally(e);
+        }
+    }
+
+    private void retryLater(Task<?> task, int retryAfterSeconds) {
+        retryCounter.increment();
+        log.warn("TelegramGateway: {} to chat {} hit the rate limit, retrying in {} s",
+                task.method.getMethod(), task.chatId, retryAfterSeconds);
+
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            long until = now + TimeUnit.SECONDS.toNanos(retryAfterSeconds);
+            TokenBucket chat = chatBucket(task.chatId, now);
+            (chat != null ? chat : globalBucket).blockUntil(until);
+
+            task.attempts++;
+            // в голову своей очереди: повтор не должен обгонять порядок, но и ждать хвоста тоже
+            queues.get(task.lane).addFirst(task);
+            depths.get(task.lane).incrementAndGet();
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Под блокировкой */
+    private TokenBucket chatBucket(String chatId, long now) {
+        if (chatId == null) {
+            return null;
+        }
+        TokenBucket bucket = chatBuckets.get(chatId);
+        if (bucket == null) {
+            if (chatBuckets.size() >= MAX_IDLE_CHAT_BUCKETS) {
+                chatBuckets.values().removeIf(b -> b.isIdle(now));
+            }
+            bucket = new TokenBucket(chatBurst, chatPerSecond, now);
+            chatBuckets.put(chatId, bucket);
+        }
+        return bucket;
+    }
+
+    private static String chatIdOf(BotApiMethod<?> method) {
+        return switch (method) {
+            case SendMessage m -> m.getChatId();
+            case EditMessageText m -> m.getChatId();
+            case EditMessageReplyMarkup m -> m.getChatId();
+            case DeleteMessage m -> m.getChatId();
+            case PinChatMessage m -> m.getChatId();
+            default -> null;
+        };
+    }
+
+    private static final class Task<T extends Serializable> {
+        private final AbsSender bot;
+        private final BotApiMethod<T> method;
+        private final Lane lane;
+        private final String chatId;
+        private final long enqueuedAt;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private int attempts;
+
+        private Task(AbsSender bot, BotApiMethod<T> method, Lane lane, String chatId, long enqueuedAt) {
+            this.bot = bot;
+            this.method = method;
+            this.lane = lane;
+            this.chatId = chatId;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
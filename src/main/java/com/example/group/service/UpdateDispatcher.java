@@ -0,0 +1,7 @@
+package com.example.group.service;
+
+public interface UpdateDispatcher {
+
+    /** Выполнить обработку апдейта; задачи одного чата выполняются строго по очереди */
+    void dispatch(Long chatId, Runnable task);
+}
@@ -0,0 +1,8 @@
+package com.example.group.service.exception;
+
+public class MainBotUnavailableException extends RuntimeException {
+
+    public MainBotUnavailableException(String message) {
+        super(message);
+    }
+}
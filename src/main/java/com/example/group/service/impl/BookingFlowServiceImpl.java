@@ -2,13 +2,15 @@ package com.example.group.service.impl;
 
 import com.example.group.controllers.MainBotApiClient;
 import com.example.group.dto.SlotDTO;
-import com.example.group.model.Booking;
 import com.example.group.model.UserFlowState;
 import com.example.group.model.GroupShiftMessage;
 import com.example.group.repository.GroupShiftMessageRepository;
 import com.example.group.repository.UserFlowStateRepository;
 import com.example.group.service.BookingFlowService;
+import com.example.group.service.SlotCatalog;
 import com.example.group.service.SlotPostUpdater;
+import com.example.group.service.TelegramGateway;
+import com.example.group.service.TelegramGateway.Lane;
 import com.example.group.service.util.MessageCleaner;
 import com.example.group.service.exception.BookingBadRequestException;
 import com.example.group.service.exception.BookingConflictException;
@@ -16,8 +18,10 @@ import com.example.group.service.exception.BookingNameConflictException;
 import com.example.group.service.exception.BookingNotFoundException;
 import com.example.group.service.exception.BookingSlotUnavailableException;
 import com.example.group.service.exception.BookingTimeRestrictionException;
+import com.example.group.service.exception.MainBotUnavailableException;
 import com.example.group.service.util.SlotAvailabilityCalculator;
 import com.example.group.service.util.SlotAvailabilityCalculator.SlotAvailability;
+import com.example.group.service.util.SlotBookings;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -51,6 +55,8 @@ public class BookingFlowServiceImpl implements BookingFlowService {
     private final GroupShiftMessageRepository shiftMsgRepo;
     private final SlotPostUpdater slotPostUpdater;
     private final MessageCleaner cleaner;
+    private final SlotCatalog slotCatalog;
+    private final TelegramGateway gateway;
 
     @Override
     public void startFlowInGroup(TelegramLongPollingBot bot, Message msg, SlotDTO slot, String userFullName) {
@@ -123,7 +129,15 @@ public class BookingFlowServiceImpl implements BookingFlowService {
 
         if ("YES".equalsIgnoreCase(decision)) {
             try {
-                SlotDTO slot = reloadSlot(state.getSlotId());
+                SlotDTO slot;
+                try {
+                    slot = reloadSlot(state.getSlotId());
+                } catch (MainBotUnavailableException e) {
+                    // заявку не сбрасываем: пока она не истекла, можно нажать ещё раз
+                    log.warn("BookingFlow: main bot unavailable while confirming slot {}: {}", slotId, e.getMessage());
+                    answer(bot, cbq, "⚠️ Головний бот зараз недоступний. Спробуй за хвилину.");
+                    return;
+                }
                 if (slot == null || isSlotUnavailable(slot)) {
                     informUnavailable(bot, state.getChatId(), resolveReplyMessageId(state));
                     expireFlow(bot, state, cbq);
@@ -146,6 +160,7 @@ public class BookingFlowServiceImpl implements BookingFlowService {
                 }
 
                 mainApi.createBooking(userId, slotId, username, firstName, lastName);
+                slotCatalog.invalidate();
 
                 SendMessage done = new SendMessage(
                         state.getChatId().toString(),
@@ -156,7 +171,8 @@ public class BookingFlowServiceImpl implements BookingFlowService {
                 Message m = sendWithReplyFallback(bot, done, state.getChatId(), slotId);
                 cleaner.deleteLater(bot, state.getChatId(), m.getMessageId(), 15);
 
-                slotPostUpdater.refreshSlotPosts();
+                // посты обновляются в фоне: поток чата не ждёт правок в группе
+                slotPostUpdater.requestRefresh();
             } catch (BookingConflictException e) {
                 log.warn("User {} already has booking for slot {}", userId, slotId);
                 answer(bot, cbq, "ℹ️ Ти вже у цій зміні.");
@@ -165,6 +181,7 @@ public class BookingFlowServiceImpl implements BookingFlowService {
                 answer(bot, cbq, e.getMessage());
             } catch (BookingSlotUnavailableException e) {
                 log.warn("Slot unavailable for user {} and slot {}: {}", userId, slotId, e.getMessage());
+                slotCatalog.invalidate();
                 answer(bot, cbq, e.getMessage());
             } catch (BookingTimeRestrictionException e) {
                 log.warn("Booking time restriction for user {} and slot {}: {}", userId, slotId, e.getMessage());
@@ -202,14 +219,15 @@ public class BookingFlowServiceImpl implements BookingFlowService {
             }
         }
 
+        // сначала ответ на колбэк, иначе у пользователя крутится часики, пока идёт уборка
+        if (cbqOrNull != null) {
+            answer(bot, cbqOrNull, "✅ Готово");
+        }
+
         cleaner.deleteNow(bot, chatId, state.getUserMessageId());
         cleaner.deleteNow(bot, chatId, state.getBotMessageId());
 
         stateRepo.delete(state);
-
-        if (cbqOrNull != null) {
-            answer(bot, cbqOrNull, "✅ Готово");
-        }
     }
 
     private Integer resolveReplyMessageId(UserFlowState state) {
@@ -278,12 +296,14 @@ public class BookingFlowServiceImpl implements BookingFlowService {
 
     private void answer(TelegramLongPollingBot bot, CallbackQuery cbq, String text) {
         try {
-            bot.execute(
+            gateway.execute(
+                    bot,
                     AnswerCallbackQuery.builder()
                             .callbackQueryId(cbq.getId())
                             .text(text)
                             .showAlert(false)
-                            .build()
+                            .build(),
+                    Lane.CALLBACK
             );
         } catch (Exception ignored) {
         }
@@ -295,13 +315,13 @@ public class BookingFlowServiceImpl implements BookingFlowService {
                                           Long slotId) throws Exception {
         Integer replyTo = message.getReplyToMessageId();
         try {
-            return bot.execute(message);
+            return gateway.execute(bot, message, Lane.INTERACTIVE);
         } catch (TelegramApiException e) {
             if (replyTo != null && isMessageMissing(e)) {
                 log.warn("BookingFlow: reply target {} is missing for slot {}, sending without reply", replyTo, slotId);
                 message.setReplyToMessageId(null);
                 cleanupMissingShiftMessage(chatId, slotId, replyTo);
-                return bot.execute(message);
+                return gateway.execute(bot, message, Lane.INTERACTIVE);
             }
             throw e;
         }
@@ -320,14 +340,23 @@ public class BookingFlowServiceImpl implements BookingFlowService {
         if (slot == null || slot.getId() == null) {
             return null;
         }
-        return Optional.ofNullable(mainApi.getSlotById(slot.getId())).orElse(slot);
+        try {
+            return Optional.ofNullable(reloadSlot(slot.getId())).orElse(slot);
+        } catch (MainBotUnavailableException e) {
+            // слот из каталога; доступность ещё раз проверится при подтверждении
+            log.warn("BookingFlow: cannot reload slot {}: {}", slot.getId(), e.getMessage());
+            return slot;
+        }
     }
 
+    /** Слот из каталога; в API — если его там нет или по каталогу он недоступен: каталог мог отстать */
     private SlotDTO reloadSlot(Long slotId) {
         if (slotId == null) {
             return null;
         }
-        return mainApi.getSlotById(slotId);
+        return slotCatalog.findById(slotId)
+                .filter(slot -> !isSlotUnavailable(slot))
+                .orElseGet(() -> mainApi.getSlotById(slotId));
     }
 
     private boolean isSlotUnavailable(SlotDTO slot) {
@@ -346,20 +375,7 @@ public class BookingFlowServiceImpl implements BookingFlowService {
     }
 
     private int countActiveBookings(SlotDTO slot) {
-        List<com.example.group.dto.SlotBookingDTO> bookings = Optional.ofNullable(slot.getBookings())
-                .orElse(List.of());
-        if (!bookings.isEmpty()) {
-            return (int) bookings.stream()
-                    .filter(this::isActiveBooking)
-                    .count();
-        }
-        return slot.getBookedCount();
-    }
-
-    private boolean isActiveBooking(com.example.group.dto.SlotBookingDTO booking) {
-        Booking.BookingStatus status = Optional.ofNullable(booking.getStatus())
-                .orElse(Booking.BookingStatus.PENDING);
-        return status == Booking.BookingStatus.PENDING || status == Booking.BookingStatus.CONFIRMED;
+        return SlotBookings.activeCount(slot);
     }
 
     private void informUnavailable(TelegramLongPollingBot bot, Long chatId, Integer replyTo) {
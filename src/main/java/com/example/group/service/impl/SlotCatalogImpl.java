@@ -0,0 +1,192 @@
+package com.example.group.service.impl;
+
+import com.example.group.controllers.MainBotApiClient;
+import com.example.group.dto.SlotDTO;
+import com.example.group.service.SlotCatalog;
+import com.example.group.service.exception.MainBotUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Catalog built from {@code /slots/upcoming}: one immutable snapshot indexed by date and id,
+ * replaced with a single volatile write on every refresh. Until the first successful load,
+ * and for dates past the loaded range, calls fall through to the API.
+ */
+@Slf4j
+@Service
+public class SlotCatalogImpl implements SlotCatalog {
+
+    private final MainBotApiClient api;
+    private final Duration maxStale;
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r);
+        t.setName("slot-catalog-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public SlotCatalogImpl(MainBotApiClient api,
+                           MeterRegistry meterRegistry,
+                           @Value("${bot.slots.catalog.max-stale-ms:300000}") long maxStaleMs) {
+        this.api = api;
+        this.maxStale = Duration.ofMillis(maxStaleMs);
+
+        Gauge.builder("bot.slots.catalog.size", this, c -> c.snapshot.upcoming().size())
+                .description("Slots held in the local catalog")
+                .register(meterRegistry);
+        Gauge.builder("bot.slots.catalog.age.seconds", this, c -> c.snapshot.ageSeconds())
+                .description("Seconds since the catalog was last loaded")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<SlotDTO> slotsForDate(LocalDate date) {
+        Snapshot current = snapshot;
+        if (!current.covers(date)) {
+            return api.getSlotsForDate(date);
+        }
+        return current.byDate().getOrDefault(date, List.of());
+    }
+
+    @Override
+    public List<SlotDTO> upcomingSlots() {
+        Snapshot current = snapshot;
+        if (!current.loaded()) {
+            return api.getUpcomingSlots();
+        }
+        return current.upcoming();
+    }
+
+    @Override
+    public Optional<SlotDTO> findById(Long slotId) {
+        return Optional.ofNullable(snapshot.byId().get(slotId));
+    }
+
+    @Override
+    public long version() {
+        return snapshot.version();
+    }
+
+    /** Свой поток, а не общий ForkJoinPool: refresh блокируется на HTTP; повторные вызовы до старта склеиваются */
+    @Override
+    public void invalidate() {
+        if (refreshQueued.compareAndSet(false, true)) {
+            refreshExecutor.execute(() -> {
+                refreshQueued.set(false);
+                refresh();
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${bot.slots.catalog.refresh-ms:30000}", initialDelay = 0)
+    public synchronized void refresh() {
+        try {
+            List<SlotDTO> slots = api.getUpcomingSlots();
+            if (api.lastReadWasStale()) {
+                // это прошлый ответ, а не подтверждение: loadedAt не трогаем, возраст снимка растёт
+                log.warn("SlotCatalog: main bot unavailable, keeping {} slots loaded {}s ago",
+                        snapshot.upcoming().size(), snapshot.ageSeconds());
+                return;
+            }
+
+            // пустой список при живом снимке скорее сбой основного бота, чем отмена всех смен
+            Snapshot current = snapshot;
+            if (slots.isEmpty() && !current.upcoming().isEmpty() && current.age().compareTo(maxStale) < 0) {
+                log.warn("SlotCatalog: empty upcoming list, keeping {} slots loaded {}s ago",
+                        current.upcoming().size(), current.ageSeconds());
+                return;
+            }
+
+            if (current.loaded() && slots.equals(current.upcoming())) {
+                snapshot = current.reloaded();
+                log.debug("SlotCatalog: {} slots unchanged", slots.size());
+                return;
+            }
+
+            snapshot = Snapshot.of(slots, current.version() + 1);
+            log.debug("SlotCatalog: loaded {} slots, version {}", slots.size(), snapshot.version());
+        } catch (MainBotUnavailableException e) {
+            log.warn("SlotCatalog: main bot unavailable, keeping {} slots loaded {}s ago",
+                    snapshot.upcoming().size(), snapshot.ageSeconds());
+        } catch (Exception e) {
+            log.warn("SlotCatalog: refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private record Snapshot(List<SlotDTO> upcoming,
+                            Map<LocalDate, List<SlotDTO>> byDate,
+                            Map<Long, SlotDTO> byId,
+                            LocalDate lastDate,
+                            Instant loadedAt,
+                            long version) {
+
+        static final Snapshot EMPTY = new Snapshot(List.of(), Map.of(), Map.of(), null, null, 0);
+
+        static Snapshot of(List<SlotDTO> slots, long version) {
+            TreeMap<LocalDate, List<SlotDTO>> byDate = new TreeMap<>();
+            Map<Long, SlotDTO> byId = new HashMap<>();
+            for (SlotDTO slot : slots) {
+                if (slot.getStart() != null) {
+                    byDate.computeIfAbsent(slot.getStart().toLocalDate(), d -> new ArrayList<>()).add(slot);
+                }
+                if (slot.getId() != null) {
+                    byId.put(slot.getId(), slot);
+                }
+            }
+
+            Map<LocalDate, List<SlotDTO>> frozen = new HashMap<>();
+            byDate.forEach((date, list) -> frozen.put(date, List.copyOf(list)));
+            LocalDate lastDate = byDate.isEmpty() ? LocalDate.now() : byDate.lastKey();
+
+            return new Snapshot(List.copyOf(slots), Map.copyOf(frozen), Map.copyOf(byId), lastDate, Instant.now(), version);
+        }
+
+        /** Тот же набор слотов, заново подтверждённый API */
+        Snapshot reloaded() {
+            return new Snapshot(upcoming, byDate, byId, lastDate, Instant.now(), version);
+        }
+
+        boolean loaded() {
+            return loadedAt != null;
+        }
+
+        /** Дата внутри загруженного диапазона: от сегодня до последнего известного слота */
+        boolean covers(LocalDate date) {
+            return loaded() && !date.isBefore(LocalDate.now()) && !date.isAfter(lastDate);
+        }
+
+        Duration age() {
+            return loaded() ? Duration.between(loadedAt, Instant.now()) : Duration.ZERO;
+        }
+
+        double ageSeconds() {
+            return age().toSeconds();
+        }
+    }
+}
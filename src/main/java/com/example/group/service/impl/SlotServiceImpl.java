@@ -1,26 +1,35 @@
 package com.example.group.service.impl;
 
-import com.example.group.controllers.MainBotApiClient;
 import com.example.group.dto.ParsedShiftRequest;
 import com.example.group.dto.SlotDTO;
+import com.example.group.service.SlotCatalog;
+import com.example.group.service.SlotMatchCache;
 import com.example.group.service.SlotMatchResult;
 import com.example.group.service.SlotService;
+import com.example.group.service.util.SlotSearchDocument;
+import com.example.group.service.util.SlotSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Comparator;
+import java.util.Objects;
+import java.util.Optional;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SlotServiceImpl implements SlotService {
 
-    private final MainBotApiClient api; // сервис общения с основным ботом
+    private static final int NO_TIME = -1;
+
+    private final SlotCatalog catalog; // локальная копия слотов основного бота
+    private final SlotMatchCache matchCache;
+
+    private volatile SlotSearchIndex searchIndex = SlotSearchIndex.EMPTY;
 
     @Override
     public SlotMatchResult findMatchingSlot(ParsedShiftRequest req) {
@@ -28,26 +37,60 @@ public class SlotServiceImpl implements SlotService {
         LocalDate date = req.getDate();
         LocalTime start = req.getStartTime();
         LocalTime end = req.getEndTime();
-        String placeText = normalize(req.getPlaceText());
+        String placeText = SlotSearchIndex.normalize(req.getPlaceText());
 
         if ((placeText == null || placeText.isBlank()) && start == null && end == null && date == null) {
             log.info("No usable parameters in shift request: {}", req);
             return new SlotMatchResult(List.of());
         }
 
+        int startMinute = start != null ? start.toSecondOfDay() / 60 : NO_TIME;
+        int endMinute = end != null ? end.toSecondOfDay() / 60 : NO_TIME;
+        long today = LocalDate.now().toEpochDay();
+
+        long version = catalog.version();
+        SlotMatchCache.Key key = new SlotMatchCache.Key(date, startMinute, endMinute, placeText, today);
+        Optional<SlotMatchResult> cached = matchCache.get(key, version);
+        if (cached.isPresent()) {
+            log.debug("Slot match served from cache: {}", key);
+            return cached.get();
+        }
+
+        SlotMatchResult result = search(key, start, end);
+        matchCache.put(key, version, result);
+        return result;
+    }
+
+    /** Полный поиск по каталогу; {@code start}/{@code end} — те же, что в ключе, только для логов */
+    private SlotMatchResult search(SlotMatchCache.Key request, LocalTime start, LocalTime end) {
+        LocalDate date = request.date();
+        String placeText = request.placeText();
+
         log.info("Searching slot: date={}, time={}–{}, place='{}'",
                 date, start, end, placeText);
 
-        // 1) Загружаем слоты: по конкретной дате, либо все ближайшие, если дата не указана
-        List<SlotDTO> slots = date != null ? api.getSlotsForDate(date) : api.getUpcomingSlots();
+        // 1) Берём слоты из каталога: по конкретной дате, либо все ближайшие, если дата не указана
+        List<SlotDTO> slots = date != null ? catalog.slotsForDate(date) : catalog.upcomingSlots();
         if (slots.isEmpty()) {
             log.info("No slots available for {}", date != null ? "date " + date : "upcoming schedule");
             return new SlotMatchResult(List.of());
         }
 
         // 2) Оцениваем похожесть по месту, времени и (если есть) дате и выбираем лучший слот
+        SlotSearchIndex index = currentIndex();
+        List<String> userTokens = SlotSearchIndex.tokens(placeText);
+        Criteria criteria = new Criteria(
+                userTokens.isEmpty() ? null : index.query(userTokens),
+                request.startMinute(),
+                request.endMinute(),
+                date,
+                request.today()
+        );
         var ranked = slots.stream()
-                .map(slot -> scoreSlot(slot, placeText, start, end, date))
+                .map(index::document)
+                .filter(Objects::nonNull)
+                .filter(document -> mayPass(document, criteria))
+                .map(document -> scoreSlot(document, criteria))
                 .sorted(Comparator.comparingDouble(SlotScore::score).reversed())
                 .toList();
 
@@ -78,114 +121,78 @@ public class SlotServiceImpl implements SlotService {
 
     // ------------------ Вспомогательные методы ------------------
 
-    /** Упрощённая нормализация текста для сравнения */
-    private String normalize(String s) {
-        if (s == null) return "";
-
-        String normalized = s.toLowerCase();
-
-        return normalized
-                .replace('№', ' ')
-                .replaceAll("[^\\p{L}\\p{N}]+", " ") // оставляем только буквы (всех языков) и цифры
-                .replaceAll("\\s+", " ")            // схлопываем пробелы
-                .trim();
-    }
-
-    private boolean isSimilar(String a, String b) {
-        if (a.contains(b) || b.contains(a)) {
-            return true;
+    /** Индекс по текущей версии каталога; перестраивается, когда каталог изменился */
+    private SlotSearchIndex currentIndex() {
+        long version = catalog.version();
+        SlotSearchIndex index = searchIndex;
+        if (index.version() == version) {
+            return index;
         }
-
-        return levenshteinDistance(a, b) <= 1;
-    }
-
-    private int levenshteinDistance(String a, String b) {
-        int[][] dp = new int[a.length() + 1][b.length() + 1];
-
-        for (int i = 0; i <= a.length(); i++) {
-            dp[i][0] = i;
-        }
-        for (int j = 0; j <= b.length(); j++) {
-            dp[0][j] = j;
-        }
-
-        for (int i = 1; i <= a.length(); i++) {
-            for (int j = 1; j <= b.length(); j++) {
-                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
-                dp[i][j] = Math.min(
-                        Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1),
-                        dp[i - 1][j - 1] + cost
-                );
+        synchronized (this) {
+            index = searchIndex;
+            if (index.version() != version) {
+                index = SlotSearchIndex.build(version, catalog.upcomingSlots(), index);
+                searchIndex = index;
+                log.debug("Search index rebuilt: version={}, slots={}, tokens={}", version, index.size(), index.vocabularySize());
             }
         }
-
-        return dp[a.length()][b.length()];
+        return index;
     }
 
-    private double similarityScore(List<String> userTokens, String slotPlace) {
-        List<String> slotTokens = Arrays.stream(slotPlace.split("\\s+"))
-                .filter(t -> t.length() > 1)
-                .toList();
-
-        if (slotTokens.isEmpty()) {
-            return 0;
-        }
-
-        long matched = userTokens.stream()
-                .filter(token -> slotTokens.stream().anyMatch(slotToken -> isSimilar(slotToken, token)))
-                .count();
-
-        return matched / (double) userTokens.size();
+    /**
+     * Без времени слот с непохожим местом набирает не больше веса даты (≈0.17) и всё равно
+     * не проходит порог 0.35 — такие слоты не оцениваем.
+     */
+    private boolean mayPass(SlotSearchDocument slot, Criteria criteria) {
+        return criteria.place() == null || criteria.hasTime() || criteria.place().canMatch(slot);
     }
 
-    private SlotScore scoreSlot(SlotDTO slot, String placeText, LocalTime expectedStart, LocalTime expectedEnd, LocalDate expectedDate) {
-        List<String> userTokens = Arrays.stream(placeText.split("\\s+"))
-                .filter(t -> t.length() > 1)
-                .toList();
-
-        double placeWeight = userTokens.isEmpty() ? 0.0 : 0.5;
-        double timeWeight = (expectedStart != null || expectedEnd != null) ? 0.4 : 0.0;
+    private SlotScore scoreSlot(SlotSearchDocument slot, Criteria criteria) {
+        double placeWeight = criteria.place() == null ? 0.0 : 0.5;
+        double timeWeight = criteria.hasTime() ? 0.4 : 0.0;
         double dateWeight = 0.1; // дата всегда влияет слегка, чтобы выбирать ближайшую смену
 
         double weightSum = placeWeight + timeWeight + dateWeight;
         if (weightSum == 0) {
-            return new SlotScore(slot, 0.0);
+            return new SlotScore(slot.slot(), 0.0);
         }
 
-        double placeScore = placeWeight > 0 ? similarityScore(userTokens, normalize(slot.getPlaceName())) : 0.0;
-        double timeScore = timeWeight > 0 ? timeSimilarity(expectedStart, expectedEnd, slot.getStart().toLocalTime(), slot.getEnd().toLocalTime()) : 0.0;
-        double dateScore = dateSimilarity(expectedDate, slot.getStart().toLocalDate());
+        double placeScore = placeWeight > 0 ? criteria.place().score(slot) : 0.0;
+        double timeScore = timeWeight > 0 ? timeSimilarity(criteria, slot) : 0.0;
+        double dateScore = dateSimilarity(criteria, slot);
 
         double total = (placeScore * placeWeight + timeScore * timeWeight + dateScore * dateWeight) / weightSum;
 
-        log.debug("Slot {} placeScore={} timeScore={} dateScore={} total={}", slot.getId(), placeScore, timeScore, dateScore, total);
+        log.debug("Slot {} placeScore={} timeScore={} dateScore={} total={}", slot.slot().getId(), placeScore, timeScore, dateScore, total);
 
-        return new SlotScore(slot, total);
+        return new SlotScore(slot.slot(), total);
     }
 
-    private double timeSimilarity(LocalTime expectedStart, LocalTime expectedEnd, LocalTime slotStart, LocalTime slotEnd) {
-        if (expectedStart == null && expectedEnd == null) {
+    private double timeSimilarity(Criteria criteria, SlotSearchDocument slot) {
+        int expectedStart = criteria.startMinute();
+        int expectedEnd = criteria.endMinute();
+        if (expectedStart == NO_TIME && expectedEnd == NO_TIME) {
             return 0.0;
         }
 
         double scoreSum = 0.0;
         int parts = 0;
 
-        if (expectedStart != null) {
-            long startDiff = Math.abs(java.time.Duration.between(expectedStart, slotStart).toMinutes());
+        if (expectedStart != NO_TIME) {
+            int startDiff = Math.abs(slot.startMinute() - expectedStart);
             scoreSum += 1.0 - Math.min(startDiff, 240) / 240.0;
             parts++;
         }
 
-        if (expectedEnd != null) {
-            long endDiff = Math.abs(java.time.Duration.between(expectedEnd, slotEnd).toMinutes());
+        if (expectedEnd != NO_TIME) {
+            int endDiff = Math.abs(slot.endMinute() - expectedEnd);
             scoreSum += 1.0 - Math.min(endDiff, 240) / 240.0;
             parts++;
         }
 
         double base = scoreSum / parts;
-        if (expectedStart != null && expectedEnd != null) {
-            boolean overlaps = !(slotEnd.isBefore(expectedStart) || slotStart.isAfter(expectedEnd));
+        if (expectedStart != NO_TIME && expectedEnd != NO_TIME) {
+            boolean overlaps = !(slot.endMinute() < expectedStart || slot.startMinute() > expectedEnd);
             if (overlaps) {
                 base = Math.min(1.0, base + 0.1);
             }
@@ -194,14 +201,26 @@ public class SlotServiceImpl implements SlotService {
         return base;
     }
 
-    private double dateSimilarity(LocalDate expectedDate, LocalDate slotDate) {
-        if (expectedDate == null) {
-            long diffDays = Math.abs(java.time.Duration.between(slotDate.atStartOfDay(), LocalDate.now().atStartOfDay()).toDays());
+    private double dateSimilarity(Criteria criteria, SlotSearchDocument slot) {
+        if (criteria.date() == null) {
+            long diffDays = Math.abs(slot.epochDay() - criteria.todayEpochDay());
             double freshness = 1.0 - Math.min(diffDays, 14) / 14.0; // от 1.0 (сегодня) до 0.0 (две недели и дальше)
             return Math.max(freshness, 0.0);
         }
 
-        return expectedDate.equals(slotDate) ? 1.0 : 0.0;
+        return criteria.date().toEpochDay() == slot.epochDay() ? 1.0 : 0.0;
+    }
+
+    /** Параметры заявки, приведённые к виду документа; "сегодня" фиксируется один раз на запрос */
+    private record Criteria(SlotSearchIndex.PlaceQuery place,
+                            int startMinute,
+                            int endMinute,
+                            LocalDate date,
+                            long todayEpochDay) {
+
+        boolean hasTime() {
+            return startMinute != NO_TIME || endMinute != NO_TIME;
+        }
     }
 
     private record SlotScore(SlotDTO slot, double score) {}
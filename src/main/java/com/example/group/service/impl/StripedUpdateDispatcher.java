@@ -0,0 +1,111 @@
+package com.example.group.service.impl;
+
+import com.example.group.service.UpdateDispatcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed number of single-threaded stripes; a chat always lands on the same stripe,
+ * so its updates keep their order while the thread count does not grow with the number of chats.
+ * Idle stripe threads are released after {@code bot.dispatch.idle-seconds}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "bot.dispatch.mode", havingValue = "striped", matchIfMissing = true)
+public class StripedUpdateDispatcher implements UpdateDispatcher {
+
+    private final ThreadPoolExecutor[] stripes;
+    private final Counter rejectedCounter;
+    private final AtomicInteger chatlessCursor = new AtomicInteger();
+
+    public StripedUpdateDispatcher(MeterRegistry meterRegistry,
+                                   @Value("${bot.dispatch.stripes:8}") int stripeCount,
+                                   @Value("${bot.dispatch.queue-capacity:1000}") int queueCapacity,
+                                   @Value("${bot.dispatch.idle-seconds:60}") long idleSeconds) {
+        this.stripes = new ThreadPoolExecutor[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            ThreadPoolExecutor stripe = new ThreadPoolExecutor(
+                    1,
+                    1,
+                    idleSeconds,
+                    TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                    daemonFactory("chat-stripe-" + i),
+                    new ThreadPoolExecutor.AbortPolicy()
+            );
+            stripe.allowCoreThreadTimeOut(true);
+            stripes[i] = stripe;
+
+            Gauge.builder("bot.dispatch.queue.depth", stripe, s -> s.getQueue().size())
+                    .description("Updates waiting in the stripe queue")
+                    .tag("stripe", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+
+        this.rejectedCounter = Counter.builder("bot.dispatch.rejected")
+                .description("Updates dropped because the stripe queue was full")
+                .register(meterRegistry);
+
+        log.info("Update dispatcher started: {} stripes, queue capacity {}", stripes.length, queueCapacity);
+    }
+
+    @Override
+    public void dispatch(Long chatId, Runnable task) {
+        int index = stripeIndex(chatId);
+        ThreadPoolExecutor stripe = stripes[index];
+        try {
+            stripe.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("UpdateDispatcher: stripe {} is full ({} queued), dropping update for chat {}",
+                    index, stripe.getQueue().size(), chatId);
+        }
+    }
+
+    /** Текущая длина очереди по каждой полосе */
+    public int[] queueDepths() {
+        int[] depths = new int[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            depths[i] = stripes[i].getQueue().size();
+        }
+        return depths;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdown();
+        }
+    }
+
+    private int stripeIndex(Long chatId) {
+        if (chatId == null) {
+            // апдейты без чата не требуют порядка — раскидываем по кругу
+            return Math.floorMod(chatlessCursor.getAndIncrement(), stripes.length);
+        }
+        int h = Long.hashCode(chatId);
+        return Math.floorMod(h ^ (h >>> 16), stripes.length);
+    }
+
+    private static ThreadFactory daemonFactory(String name) {
+        return r -> {
+            Thread t = new Thread(r);
+            t.setName(name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
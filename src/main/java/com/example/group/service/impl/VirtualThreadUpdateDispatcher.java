@@ -0,0 +1,74 @@
+package com.example.group.service.impl;
+
+import com.example.group.service.UpdateDispatcher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs every update on its own virtual thread. Updates of one chat are chained into a
+ * per-chat mailbox (the tail future), so they still execute one after another; the mailbox
+ * is dropped as soon as the chat has nothing in flight.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "bot.dispatch.mode", havingValue = "virtual")
+public class VirtualThreadUpdateDispatcher implements UpdateDispatcher {
+
+    private static final CompletableFuture<Void> IDLE = CompletableFuture.completedFuture(null);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ConcurrentHashMap<Long, CompletableFuture<Void>> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public VirtualThreadUpdateDispatcher(MeterRegistry meterRegistry) {
+        Gauge.builder("bot.dispatch.mailboxes", mailboxes, ConcurrentHashMap::size)
+                .description("Chats with updates in flight")
+                .register(meterRegistry);
+        Gauge.builder("bot.dispatch.in.flight", inFlight, AtomicInteger::get)
+                .description("Updates queued or running on virtual threads")
+                .register(meterRegistry);
+
+        log.info("Update dispatcher started: virtual threads");
+    }
+
+    @Override
+    public void dispatch(Long chatId, Runnable task) {
+        inFlight.incrementAndGet();
+        Runnable tracked = () -> {
+            try {
+                task.run();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+
+        if (chatId == null) {
+            executor.execute(tracked);
+            return;
+        }
+
+        // handleAsync запускается и после исключения в предыдущей задаче — очередь чата не "застревает"
+        CompletableFuture<Void> tail = mailboxes.compute(chatId, (id, previous) ->
+                (previous != null ? previous : IDLE).handleAsync((ignored, error) -> {
+                    tracked.run();
+                    return null;
+                }, executor));
+
+        tail.whenComplete((ignored, error) -> mailboxes.remove(chatId, tail));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
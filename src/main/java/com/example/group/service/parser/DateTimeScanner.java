@@ -0,0 +1,332 @@
+package com.example.group.service.parser;
+
+/**
+ * Распознаватель дат и интервалов времени без регулярных выражений.
+ * <p>
+ * Повторяет поведение прежних шаблонов {@code PatternParser} (в т.ч. порядок перебора
+ * вариантов, как у {@code Matcher.find}), но на каждой позиции перебирает лишь конечное
+ * число вариантов, а серии пробелов и поиск {@code ')'} не сканируются повторно —
+ * время работы линейно от длины текста. Текст длиннее {@link #MAX_INPUT} обрезается.
+ */
+public final class DateTimeScanner {
+
+    /** Лимит Telegram на длину сообщения; всё, что дальше, не разбираем */
+    public static final int MAX_INPUT = 4096;
+
+    public enum Kind {
+        /** {@code 15.05}, {@code 15/05/2024}, {@code 15.05 (пт)}: день, месяц, год */
+        DATE_DOTTED,
+        /** {@code 2024-05-15}: год, месяц, день */
+        DATE_ISO,
+        /** {@code 10:00-18:00} без пробелов, {@code 8.00.20.00}: начало, конец */
+        TIME_FOUR_PARTS,
+        /** {@code з 10 - 18}, {@code 10:00–18}, {@code -18}: начало, конец */
+        TIME_RANGE,
+        /** {@code з 10 до 18}, {@code 9 to 21}, {@code по 20}: начало, конец */
+        TIME_FROM_TO
+    }
+
+    /**
+     * Совпадение {@code [start, end)}; группы — в том же порядке, что были в шаблоне,
+     * отсутствующая группа — {@code null}.
+     */
+    public record Match(int start, int end, String group1, String group2, String group3) {}
+
+    private final String text;
+    private final int limit;
+
+    // последний результат поиска ')': закрывающих скобок нет в [closeFrom, closeAt)
+    private int closeFrom = Integer.MAX_VALUE;
+    private int closeAt = -1;
+
+    public DateTimeScanner(String text) {
+        this.text = text;
+        this.limit = Math.min(text.length(), MAX_INPUT);
+    }
+
+    /** Заменяет каждое совпадение на пробел, как {@code replaceAll(" ")} */
+    public static String removeAll(String text, Kind kind) {
+        DateTimeScanner scanner = new DateTimeScanner(text);
+        Match match = scanner.find(kind, 0);
+        if (match == null) {
+            return text;
+        }
+
+        StringBuilder sb = new StringBuilder(text.length());
+        int tail = 0;
+        while (match != null) {
+            sb.append(text, tail, match.start()).append(' ');
+            tail = match.end();
+            match = scanner.find(kind, tail);
+        }
+        return sb.append(text, tail, text.length()).toString();
+    }
+
+    /** Самое левое совпадение, начинающееся не раньше {@code from}, или {@code null} */
+    public Match find(Kind kind, int from) {
+        for (int p = from; p < limit; p++) {
+            Match match = switch (kind) {
+                case DATE_DOTTED -> dottedDateAt(p);
+                case DATE_ISO -> isoDateAt(p);
+                case TIME_FOUR_PARTS -> fourPartsAt(p);
+                case TIME_RANGE, TIME_FROM_TO -> rangeAt(kind, p);
+            };
+            if (match != null) {
+                return match;
+            }
+            if ((kind == Kind.TIME_RANGE || kind == Kind.TIME_FROM_TO) && NameScanner.isSpace(text.charAt(p))) {
+                // с любой позиции внутри серии пробелов попытка сводится к той же проверке разделителя
+                p = skipSpaces(p) - 1;
+            }
+        }
+        return null;
+    }
+
+    // (\d{1,2})[./](\d{1,2})(?:[./](\d{2,4}))?(?:\s*\([^)]*\))?
+    private Match dottedDateAt(int p) {
+        int sep = p + digits(p, 2);
+        if (sep == p || !isDateSeparator(sep)) {
+            // вариант с одной цифрой упирается во вторую цифру вместо разделителя
+            return null;
+        }
+
+        int monthEnd = sep + 1 + digits(sep + 1, 2);
+        if (monthEnd == sep + 1) {
+            return null;
+        }
+
+        int end = monthEnd;
+        String year = null;
+        if (isDateSeparator(monthEnd)) {
+            int yearLength = digits(monthEnd + 1, 4);
+            if (yearLength >= 2) {
+                end = monthEnd + 1 + yearLength;
+                year = text.substring(monthEnd + 1, end);
+            }
+        }
+
+        int paren = skipSpaces(end);
+        if (paren < limit && text.charAt(paren) == '(') {
+            int close = nextClose(paren + 1);
+            if (close >= 0) {
+                end = close + 1;
+            }
+        }
+
+        return new Match(p, end, text.substring(p, sep), text.substring(sep + 1, monthEnd), year);
+    }
+
+    // (\d{4})-(\d{1,2})-(\d{1,2})
+    private Match isoDateAt(int p) {
+        if (digits(p, 4) != 4 || !charIs(p + 4, '-')) {
+            return null;
+        }
+        int monthEnd = p + 5 + digits(p + 5, 2);
+        if (monthEnd == p + 5 || !charIs(monthEnd, '-')) {
+            return null;
+        }
+        int dayEnd = monthEnd + 1 + digits(monthEnd + 1, 2);
+        if (dayEnd == monthEnd + 1) {
+            return null;
+        }
+        return new Match(p, dayEnd,
+                text.substring(p, p + 4), text.substring(p + 5, monthEnd), text.substring(monthEnd + 1, dayEnd));
+    }
+
+    // (\d{1,2}[:.]\d{2})[:.]?(\d{1,2}[:.]\d{2})
+    private Match fourPartsAt(int p) {
+        for (int first = digits(p, 2); first >= 1; first--) {
+            int firstEnd = clockPartEnd(p, first);
+            if (firstEnd < 0) {
+                continue;
+            }
+            for (int gap = isColonOrDot(firstEnd) ? 1 : 0; gap >= 0; gap--) {
+                int second = firstEnd + gap;
+                for (int hours = digits(second, 2); hours >= 1; hours--) {
+                    int secondEnd = clockPartEnd(second, hours);
+                    if (secondEnd >= 0) {
+                        return new Match(p, secondEnd,
+                                text.substring(p, firstEnd), text.substring(second, secondEnd), null);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Конец {@code \d{hours}[:.]\d{2}} от {@code pos} или -1 */
+    private int clockPartEnd(int pos, int hours) {
+        int separator = pos + hours;
+        if (!isColonOrDot(separator) || digits(separator + 1, 2) != 2) {
+            return -1;
+        }
+        return separator + 3;
+    }
+
+    // (?:[ззcс]\s*)?(?<start>T)?\s*SEP\s*(?<end>T)?, где T = \d{1,2}(?::?\d{1,2})?
+    private Match rangeAt(Kind kind, int p) {
+        if (isRangePrefix(text.charAt(p))) {
+            Match match = rangeFrom(kind, p, skipSpaces(p + 1));
+            if (match != null) {
+                return match;
+            }
+        }
+        return rangeFrom(kind, p, p);
+    }
+
+    private Match rangeFrom(Kind kind, int matchStart, int pos) {
+        // варианты группы start в порядке жадного перебора, затем — без неё
+        for (int hours = digits(pos, 2); hours >= 1; hours--) {
+            int base = pos + hours;
+            if (charIs(base, ':')) {
+                for (int minutes = digits(base + 1, 2); minutes >= 1; minutes--) {
+                    Match match = rangeTail(kind, matchStart, pos, base + 1 + minutes);
+                    if (match != null) {
+                        return match;
+                    }
+                }
+            }
+            for (int minutes = digits(base, 2); minutes >= 1; minutes--) {
+                Match match = rangeTail(kind, matchStart, pos, base + minutes);
+                if (match != null) {
+                    return match;
+                }
+            }
+            Match match = rangeTail(kind, matchStart, pos, base);
+            if (match != null) {
+                return match;
+            }
+        }
+        return rangeTail(kind, matchStart, pos, pos);
+    }
+
+    private Match rangeTail(Kind kind, int matchStart, int startFrom, int startEnd) {
+        int separator = skipSpaces(startEnd);
+        int afterSeparator = kind == Kind.TIME_RANGE
+                ? rangeSeparatorEnd(separator)
+                : rangeWordEnd(separator);
+        if (afterSeparator < 0) {
+            return null;
+        }
+
+        int endFrom = skipSpaces(afterSeparator);
+        int hours = digits(endFrom, 2);
+        int endEnd = endFrom + hours;
+        if (hours > 0) {
+            int base = endEnd;
+            int minutes = charIs(base, ':') ? digits(base + 1, 2) : 0;
+            if (minutes > 0) {
+                endEnd = base + 1 + minutes;
+            } else {
+                endEnd = base + digits(base, 2);
+            }
+        }
+
+        return new Match(matchStart, endEnd,
+                startEnd > startFrom ? text.substring(startFrom, startEnd) : null,
+                endEnd > endFrom ? text.substring(endFrom, endEnd) : null,
+                null);
+    }
+
+    // [–—:\-]
+    private int rangeSeparatorEnd(int pos) {
+        if (pos >= limit) {
+            return -1;
+        }
+        return switch (text.charAt(pos)) {
+            case '–', '—', ':', '-' -> pos + 1;
+            default -> -1;
+        };
+    }
+
+    // (?<!\p{L})(?:до|to|по|till)(?!\p{L})
+    private int rangeWordEnd(int pos) {
+        if (pos >= limit || (pos > 0 && Character.isLetter(text.codePointBefore(pos)))) {
+            return -1;
+        }
+
+        int end;
+        if (wordAt(pos, "до") || wordAt(pos, "to") || wordAt(pos, "по")) {
+            end = pos + 2;
+        } else if (wordAt(pos, "till")) {
+            end = pos + 4;
+        } else {
+            return -1;
+        }
+
+        if (end < limit && Character.isLetter(text.codePointAt(end))) {
+            return -1;
+        }
+        return end;
+    }
+
+    private boolean wordAt(int pos, String word) {
+        if (pos + word.length() > limit) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (fold(text.charAt(pos + i)) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Следующая ')' начиная с {@code from} или -1; каждый символ просматривается один раз */
+    private int nextClose(int from) {
+        if (from >= closeFrom && (closeAt < 0 || closeAt >= from)) {
+            return closeAt;
+        }
+        closeFrom = from;
+        closeAt = -1;
+        for (int i = from; i < limit; i++) {
+            if (text.charAt(i) == ')') {
+                closeAt = i;
+                break;
+            }
+        }
+        return closeAt;
+    }
+
+    /** Сколько ASCII-цифр подряд (не больше {@code max}) начиная с {@code pos} */
+    private int digits(int pos, int max) {
+        int count = 0;
+        while (count < max && pos + count < limit) {
+            char c = text.charAt(pos + count);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private int skipSpaces(int pos) {
+        while (pos < limit && NameScanner.isSpace(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private boolean charIs(int pos, char c) {
+        return pos < limit && text.charAt(pos) == c;
+    }
+
+    private boolean isDateSeparator(int pos) {
+        return charIs(pos, '.') || charIs(pos, '/');
+    }
+
+    private boolean isColonOrDot(int pos) {
+        return charIs(pos, ':') || charIs(pos, '.');
+    }
+
+    private static boolean isRangePrefix(char c) {
+        char folded = fold(c);
+        return folded == 'з' || folded == 'c' || folded == 'с';
+    }
+
+    /** Та же свёртка регистра, что у Pattern с (?iu) */
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
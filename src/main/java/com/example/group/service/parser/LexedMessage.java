@@ -0,0 +1,26 @@
+package com.example.group.service.parser;
+
+import java.util.List;
+
+/**
+ * Результат одного прохода {@link MessageLexer} по сообщению.
+ *
+ * @param normalized           нормализованный текст (строки сохранены, пробелы схлопнуты)
+ * @param lines                непустые строки, без крайних пробелов
+ * @param textWithoutLocations текст без кусков-локаций, через одиночный пробел
+ * @param nameCandidates       кандидаты в имя (2–3 слова подряд) из {@code textWithoutLocations}
+ * @param hasDigits            есть ли в тексте хоть одна цифра — без неё нет ни даты, ни времени
+ */
+public record LexedMessage(String normalized,
+                           List<String> lines,
+                           String textWithoutLocations,
+                           List<NameCandidate> nameCandidates,
+                           boolean hasDigits) {
+
+    public static final LexedMessage EMPTY = new LexedMessage("", List.of(), "", List.of(), false);
+
+    /**
+     * @param containsLocation хотя бы одно слово кандидата — стоп-слово
+     */
+    public record NameCandidate(String text, boolean containsLocation) {}
+}
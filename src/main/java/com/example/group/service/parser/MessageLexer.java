@@ -0,0 +1,181 @@
+package com.example.group.service.parser;
+
+import com.example.group.service.StopWordService;
+import com.example.group.service.parser.LexedMessage.NameCandidate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Разбирает сообщение за один проход: нормализация, строки, текст без локаций и кандидаты
+ * в имя. Каждое слово проверяется по стоп-словам не больше одного раза.
+ */
+@Component
+@RequiredArgsConstructor
+public class MessageLexer {
+
+    private final StopWordService stopWordService;
+
+    public LexedMessage lex(String rawText) {
+        String normalized = normalize(rawText);
+        Map<String, Boolean> locationCache = new HashMap<>();
+
+        List<String> lines = new ArrayList<>();
+        StringBuilder withoutLocations = new StringBuilder(normalized.length());
+        boolean hasDigits = false;
+
+        int lineStart = 0;
+        int n = normalized.length();
+        for (int i = 0; i <= n; i++) {
+            if (i < n && normalized.charAt(i) != '\n') {
+                continue;
+            }
+
+            String line = normalized.substring(lineStart, i);
+            String trimmedLine = line.trim();
+            if (!trimmedLine.isBlank()) {
+                lines.add(trimmedLine);
+            }
+
+            int pos = 0;
+            while (pos < line.length()) {
+                while (pos < line.length() && NameScanner.isSpace(line.charAt(pos))) {
+                    pos++;
+                }
+                int start = pos;
+                while (pos < line.length() && !NameScanner.isSpace(line.charAt(pos))) {
+                    pos++;
+                }
+                if (start == pos) {
+                    continue;
+                }
+
+                String chunk = line.substring(start, pos);
+                hasDigits |= containsDigit(chunk);
+
+                if (!chunk.isBlank() && !isLocation(chunk, locationCache)) {
+                    withoutLocations.append(chunk).append(' ');
+                }
+            }
+
+            lineStart = i + 1;
+        }
+
+        String textWithoutLocations = withoutLocations.toString().trim();
+        return new LexedMessage(
+                normalized,
+                List.copyOf(lines),
+                textWithoutLocations,
+                scanNameCandidates(textWithoutLocations, locationCache),
+                hasDigits
+        );
+    }
+
+    /**
+     * Тире → '-', многоточие и неразрывный пробел → пробел, серии символов-значков (эмодзи,
+     * валюта, математика) → один пробел; пробелы схлопываются, а серия пробелов с переводом
+     * строки превращается в один '\n'.
+     */
+    public String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        boolean pendingNewline = false;
+
+        int i = 0;
+        int n = text.length();
+        while (i < n) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+
+            cp = switch (cp) {
+                case '\u2013', '\u2014', '\u2015', '\u2212', '\u2010' -> '-';
+                case '\u2026', '\u00a0' -> ' ';
+                default -> cp;
+            };
+
+            if (cp == '\n') {
+                pendingNewline = true;
+                continue;
+            }
+            if (isHorizontalSpace(cp) || isSymbol(cp)) {
+                pendingSpace = true;
+                continue;
+            }
+
+            if (pendingNewline) {
+                sb.append('\n');
+            } else if (pendingSpace) {
+                sb.append(' ');
+            }
+            pendingNewline = false;
+            pendingSpace = false;
+            sb.appendCodePoint(cp);
+        }
+
+        if (pendingNewline) {
+            sb.append('\n');
+        } else if (pendingSpace) {
+            sb.append(' ');
+        }
+        return sb.toString().trim();
+    }
+
+    private List<NameCandidate> scanNameCandidates(String text, Map<String, Boolean> locationCache) {
+        List<NameCandidate> candidates = new ArrayList<>();
+        NameScanner.Span span = NameScanner.find(text, 0);
+        while (span != null) {
+            String candidate = text.substring(span.start(), span.end());
+            candidates.add(new NameCandidate(candidate, anyWordIsLocation(candidate, locationCache)));
+            span = NameScanner.find(text, span.end());
+        }
+        return List.copyOf(candidates);
+    }
+
+    private boolean anyWordIsLocation(String candidate, Map<String, Boolean> locationCache) {
+        int pos = 0;
+        int n = candidate.length();
+        while (pos < n) {
+            int start = pos;
+            while (pos < n && !NameScanner.isSpace(candidate.charAt(pos))) {
+                pos++;
+            }
+            if (isLocation(candidate.substring(start, pos), locationCache)) {
+                return true;
+            }
+            while (pos < n && NameScanner.isSpace(candidate.charAt(pos))) {
+                pos++;
+            }
+        }
+        return false;
+    }
+
+    private boolean isLocation(String word, Map<String, Boolean> locationCache) {
+        return locationCache.computeIfAbsent(word, stopWordService::isStopWordToken);
+    }
+
+    private static boolean containsDigit(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isHorizontalSpace(int cp) {
+        return cp == ' ' || cp == '\t' || cp == '\u000B' || cp == '\f' || cp == '\r';
+    }
+
+    private static boolean isSymbol(int cp) {
+        int type = Character.getType(cp);
+        return type == Character.OTHER_SYMBOL
+                || type == Character.MODIFIER_SYMBOL
+                || type == Character.CURRENCY_SYMBOL
+                || type == Character.MATH_SYMBOL;
+    }
+}
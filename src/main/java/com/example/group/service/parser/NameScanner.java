@@ -0,0 +1,110 @@
+package com.example.group.service.parser;
+
+/**
+ * Поиск "имени" — двух или трёх слов подряд, разделённых пробелами, где слово — это
+ * не меньше двух букв/диакритик/апострофов/дефисов. Работает одним проходом по строке.
+ */
+public final class NameScanner {
+
+    private NameScanner() {}
+
+    public record Span(int start, int end) {}
+
+    /** Следующее совпадение начиная с {@code from} или {@code null} */
+    public static Span find(String text, int from) {
+        int n = text.length();
+        int pos = from;
+        while (pos < n) {
+            int start = pos;
+            while (start < n && !isNameChar(text.codePointAt(start))) {
+                start += Character.charCount(text.codePointAt(start));
+            }
+            if (start >= n) {
+                return null;
+            }
+
+            int firstEnd = wordEnd(text, start);
+            int end = matchFrom(text, start, firstEnd);
+            if (end >= 0) {
+                return new Span(start, end);
+            }
+            // внутри того же слова совпадение тоже невозможно — продолжаем после него
+            pos = firstEnd;
+        }
+        return null;
+    }
+
+    public static boolean containsName(String text) {
+        return find(text, 0) != null;
+    }
+
+    public static boolean isNameChar(int cp) {
+        if (cp == '\'' || cp == '’' || cp == '-') {
+            return true;
+        }
+        if (Character.isLetter(cp)) {
+            return true;
+        }
+        int type = Character.getType(cp);
+        return type == Character.NON_SPACING_MARK
+                || type == Character.COMBINING_SPACING_MARK
+                || type == Character.ENCLOSING_MARK;
+    }
+
+    /** Пробельный символ в смысле {@code \s} без UNICODE_CHARACTER_CLASS */
+    public static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static int matchFrom(String text, int start, int firstEnd) {
+        if (!isWord(text, start, firstEnd)) {
+            return -1;
+        }
+
+        int secondStart = skipSpaces(text, firstEnd);
+        if (secondStart == firstEnd || !startsWord(text, secondStart)) {
+            return -1;
+        }
+        int secondEnd = wordEnd(text, secondStart);
+        if (!isWord(text, secondStart, secondEnd)) {
+            return -1;
+        }
+
+        int thirdStart = skipSpaces(text, secondEnd);
+        if (thirdStart > secondEnd && startsWord(text, thirdStart)) {
+            int thirdEnd = wordEnd(text, thirdStart);
+            if (isWord(text, thirdStart, thirdEnd)) {
+                return thirdEnd;
+            }
+        }
+        return secondEnd;
+    }
+
+    private static boolean startsWord(String text, int pos) {
+        return pos < text.length() && isNameChar(text.codePointAt(pos));
+    }
+
+    private static boolean isWord(String text, int start, int end) {
+        return text.codePointCount(start, end) >= 2;
+    }
+
+    private static int wordEnd(String text, int pos) {
+        int n = text.length();
+        while (pos < n) {
+            int cp = text.codePointAt(pos);
+            if (!isNameChar(cp)) {
+                break;
+            }
+            pos += Character.charCount(cp);
+        }
+        return pos;
+    }
+
+    private static int skipSpaces(String text, int pos) {
+        int n = text.length();
+        while (pos < n && isSpace(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+}
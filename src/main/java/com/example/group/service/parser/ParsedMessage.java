@@ -0,0 +1,49 @@
+package com.example.group.service.parser;
+
+import com.example.group.dto.ParsedShiftRequest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+
+/**
+ * Сообщение, разобранное один раз на апдейт. Дальше по цепочке (заявка, reply-ветка,
+ * проверка имени в {@code BookingRequestCache}) используется только оно — текст повторно
+ * не разбирается.
+ *
+ * @param lexed        нормализованный текст, токены и кандидаты в имя
+ * @param recognized   сообщение похоже на заявку на смену
+ * @param userFullName имя из заявки (с учётом найденной локации)
+ * @param nameOnly     имя из текста без учёта локации — то же, что {@code extractNameOnly}
+ */
+public record ParsedMessage(LexedMessage lexed,
+                            boolean recognized,
+                            LocalDate date,
+                            LocalTime startTime,
+                            LocalTime endTime,
+                            String placeText,
+                            String userFullName,
+                            String nameOnly) {
+
+    public static final ParsedMessage EMPTY = unrecognized(LexedMessage.EMPTY, null);
+
+    public static ParsedMessage unrecognized(LexedMessage lexed, String nameOnly) {
+        return new ParsedMessage(lexed, false, null, null, null, null, null, nameOnly);
+    }
+
+    /** Заявка для поиска смены; каждый вызов отдаёт новый DTO */
+    public Optional<ParsedShiftRequest> shiftRequest() {
+        if (!recognized) {
+            return Optional.empty();
+        }
+        return Optional.of(new ParsedShiftRequest(date, startTime, endTime, placeText, userFullName));
+    }
+
+    public Optional<String> name() {
+        return Optional.ofNullable(nameOnly);
+    }
+
+    public boolean isLikelyShiftRequest() {
+        return recognized && (date != null || startTime != null || endTime != null || placeText != null);
+    }
+}
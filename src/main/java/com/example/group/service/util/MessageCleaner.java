@@ -1,5 +1,8 @@
 package com.example.group.service.util;
 
+import com.example.group.service.TelegramGateway;
+import com.example.group.service.TelegramGateway.Lane;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
@@ -10,21 +13,24 @@ import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class MessageCleaner {
 
+    private final TelegramGateway gateway;
+
     public void deleteLater(TelegramLongPollingBot bot, Long chatId, Integer messageId, int seconds) {
         CompletableFuture
                 .delayedExecutor(seconds, TimeUnit.SECONDS)
                 .execute(() -> deleteNow(bot, chatId, messageId));
     }
 
+    /** Ставит удаление в очередь и не ждёт его: удаление не должно задерживать ответ пользователю */
     public void deleteNow(TelegramLongPollingBot bot, Long chatId, Integer messageId) {
-        try {
-            DeleteMessage dm = new DeleteMessage(chatId.toString(), messageId);
-            bot.execute(dm);
-        } catch (Exception e) {
+        DeleteMessage dm = new DeleteMessage(chatId.toString(), messageId);
+        gateway.submit(bot, dm, Lane.CLEANUP).exceptionally(e -> {
             log.warn("Failed to delete message chatId={}, msgId={}, err={}",
-                    chatId, messageId, e.getMessage());
-        }
+                    chatId, messageId, Futures.unwrap(e).getMessage());
+            return null;
+        });
     }
 }
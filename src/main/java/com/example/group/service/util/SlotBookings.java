@@ -0,0 +1,95 @@
+package com.example.group.service.util;
+
+import com.example.group.dto.LazyBookingList;
+import com.example.group.dto.SlotBookingDTO;
+import com.example.group.dto.SlotDTO;
+import com.example.group.model.Booking;
+
+import java.util.List;
+
+/**
+ * Counts and fingerprints of a slot's active (pending or confirmed) bookings.
+ * For slots from the streaming decoder both are precomputed, so no booking objects are created.
+ */
+public final class SlotBookings {
+
+    public static final long EMPTY_FINGERPRINT = 1L;
+
+    private static final long MULTIPLIER = 1_000_003L;
+
+    private SlotBookings() {
+    }
+
+    public static boolean isActive(Booking.BookingStatus status) {
+        return status == null || status == Booking.BookingStatus.PENDING || status == Booking.BookingStatus.CONFIRMED;
+    }
+
+    public static boolean isActive(SlotBookingDTO booking) {
+        return isActive(booking.getStatus());
+    }
+
+    /** Active bookings, or {@code bookedCount} when the slot came without a booking list */
+    public static int activeCount(SlotDTO slot) {
+        List<SlotBookingDTO> bookings = slot.getBookings();
+        if (bookings == null || bookings.isEmpty()) {
+            return slot.getBookedCount();
+        }
+        if (bookings instanceof LazyBookingList lazy) {
+            return lazy.activeCount();
+        }
+        return (int) bookings.stream()
+                .filter(SlotBookings::isActive)
+                .count();
+    }
+
+    /** Order-sensitive hash of status and trimmed names of the active bookings */
+    public static long activeFingerprint(SlotDTO slot) {
+        List<SlotBookingDTO> bookings = slot.getBookings();
+        if (bookings == null) {
+            return EMPTY_FINGERPRINT;
+        }
+        if (bookings instanceof LazyBookingList lazy) {
+            return lazy.activeFingerprint();
+        }
+        long fingerprint = EMPTY_FINGERPRINT;
+        for (SlotBookingDTO booking : bookings) {
+            if (isActive(booking)) {
+                fingerprint = mix(fingerprint, booking.getStatus(),
+                        trimmedHash(booking.getFirstName()), trimmedHash(booking.getLastName()));
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Adds one active booking. Names come as {@link String#hashCode()} of the trimmed value
+     * (0 for null), so a streaming parser can hash them without creating strings.
+     */
+    public static long mix(long fingerprint, Booking.BookingStatus status, int firstNameHash, int lastNameHash) {
+        Booking.BookingStatus effective = status != null ? status : Booking.BookingStatus.PENDING;
+        fingerprint = fingerprint * MULTIPLIER + effective.ordinal();
+        fingerprint = fingerprint * MULTIPLIER + firstNameHash;
+        return fingerprint * MULTIPLIER + lastNameHash;
+    }
+
+    public static int trimmedHash(String value) {
+        return value != null ? value.trim().hashCode() : 0;
+    }
+
+    /** Same as {@code new String(chars, offset, length).trim().hashCode()} */
+    public static int trimmedHash(char[] chars, int offset, int length) {
+        int from = offset;
+        int to = offset + length;
+        while (from < to && chars[from] <= ' ') {
+            from++;
+        }
+        while (to > from && chars[to - 1] <= ' ') {
+            to--;
+        }
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.group.service.util;
+
+import com.example.group.dto.SlotDTO;
+
+import java.util.List;
+
+/**
+ * Everything the matcher reads from a slot, computed once per slot version: normalized place
+ * tokens, start/end as minute of day and the start date as epoch day. Scoring a request against
+ * it is plain arithmetic.
+ *
+ * @param tokens значимые токены нормализованного названия места
+ */
+public record SlotSearchDocument(SlotDTO slot,
+                                 List<String> tokens,
+                                 int startMinute,
+                                 int endMinute,
+                                 long epochDay) {
+
+    /** @return {@code null}, если у слота нет времени начала или конца — такой слот не с чем сравнивать */
+    public static SlotSearchDocument of(SlotDTO slot) {
+        if (slot.getStart() == null || slot.getEnd() == null) {
+            return null;
+        }
+        return new SlotSearchDocument(slot, SlotSearchIndex.tokens(SlotSearchIndex.normalize(slot.getPlaceName())),
+                slot.getStart().toLocalTime().toSecondOfDay() / 60,
+                slot.getEnd().toLocalTime().toSecondOfDay() / 60,
+                slot.getStart().toLocalDate().toEpochDay());
+    }
+
+    /** Тот же слот, пришедший новым объектом: пересчитывать нечего */
+    SlotSearchDocument withSlot(SlotDTO sameSlot) {
+        return new SlotSearchDocument(sameSlot, tokens, startMinute, endMinute, epochDay);
+    }
+
+    boolean describes(SlotDTO other) {
+        return slot == other || slot.equals(other);
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.group.service.util;
+
+import com.example.group.dto.SlotDTO;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matcher index for one catalog version: a {@link SlotSearchDocument} per slot, and the distinct
+ * place tokens of all documents in a {@link TrigramIndex}. A request resolves each of its tokens to
+ * the set of similar vocabulary tokens once (exact check over trigram candidates only); a slot's
+ * place score is then a bit lookup instead of string comparisons. Documents of slots that did not
+ * change are carried over from the previous version.
+ */
+public final class SlotSearchIndex {
+
+    public static final SlotSearchIndex EMPTY = build(-1, List.of(), null);
+
+    private final long version;
+    private final TrigramIndex vocabulary;
+    private final Map<Long, Entry> entries;
+
+    private SlotSearchIndex(long version, TrigramIndex vocabulary, Map<Long, Entry> entries) {
+        this.version = version;
+        this.vocabulary = vocabulary;
+        this.entries = entries;
+    }
+
+    public static SlotSearchIndex build(long version, List<SlotDTO> slots, SlotSearchIndex previous) {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        Map<Long, Entry> entries = new HashMap<>();
+        for (SlotDTO slot : slots) {
+            if (slot.getId() == null) {
+                continue;
+            }
+            Entry old = previous != null ? previous.entries.get(slot.getId()) : null;
+            SlotSearchDocument document = old != null && old.document().describes(slot)
+                    ? old.document().withSlot(slot)
+                    : SlotSearchDocument.of(slot);
+            if (document == null) {
+                continue;
+            }
+            int[] tokenIds = document.tokens().stream()
+                    .mapToInt(token -> ids.computeIfAbsent(token, t -> ids.size()))
+                    .distinct()
+                    .toArray();
+            entries.put(slot.getId(), new Entry(document, tokenIds));
+        }
+        return new SlotSearchIndex(version, TrigramIndex.build(List.copyOf(ids.keySet())), Map.copyOf(entries));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int vocabularySize() {
+        return vocabulary.size();
+    }
+
+    /**
+     * Документ слота из индекса, а для слотов не из этой версии каталога (например, дата вне
+     * загруженного диапазона) — построенный на месте. {@code null}, если слот не с чем сравнивать.
+     */
+    public SlotSearchDocument document(SlotDTO slot) {
+        Entry entry = slot.getId() != null ? entries.get(slot.getId()) : null;
+        if (entry != null && entry.document().describes(slot)) {
+            return entry.document();
+        }
+        return SlotSearchDocument.of(slot);
+    }
+
+    /** Сопоставляет токены запроса со словарём; результат годится для оценки любого документа */
+    public PlaceQuery query(List<String> userTokens) {
+        BitSet[] similar = new BitSet[userTokens.size()];
+        for (int i = 0; i < similar.length; i++) {
+            String token = userTokens.get(i);
+            BitSet set = new BitSet(vocabulary.size());
+            for (int id : vocabulary.candidates(token)) {
+                if (TokenSimilarity.isSimilar(vocabulary.token(id), token)) {
+                    set.set(id);
+                }
+            }
+            similar[i] = set;
+        }
+        return new PlaceQuery(userTokens, similar);
+    }
+
+    public final class PlaceQuery {
+
+        private final List<String> userTokens;
+        private final BitSet[] similar;
+        /** Токены словаря, похожие хоть на один токен запроса */
+        private final BitSet anySimilar = new BitSet();
+
+        private PlaceQuery(List<String> userTokens, BitSet[] similar) {
+            this.userTokens = userTokens;
+            this.similar = similar;
+            for (BitSet set : similar) {
+                anySimilar.or(set);
+            }
+        }
+
+        /** {@code false}, если ни один токен места слота не похож на запрос — {@link #score} будет 0 */
+        public boolean canMatch(SlotSearchDocument document) {
+            Long slotId = document.slot().getId();
+            Entry entry = slotId != null ? entries.get(slotId) : null;
+            if (entry == null || entry.document() != document) {
+                return true;
+            }
+            for (int id : entry.tokenIds()) {
+                if (anySimilar.get(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Доля токенов запроса, у которых есть похожий токен в названии места слота */
+        public double score(SlotSearchDocument document) {
+            Long slotId = document.slot().getId();
+            Entry entry = slotId != null ? entries.get(slotId) : null;
+            if (entry == null || entry.document() != document) {
+                return similarityScore(userTokens, document.tokens());
+            }
+            if (entry.tokenIds().length == 0) {
+                return 0;
+            }
+
+            int matched = 0;
+            for (BitSet set : similar) {
+                for (int id : entry.tokenIds()) {
+                    if (set.get(id)) {
+                        matched++;
+                        break;
+                    }
+                }
+            }
+            return matched / (double) userTokens.size();
+        }
+    }
+
+    // ------------------ Нормализация и сравнение токенов ------------------
+
+    /** Упрощённая нормализация текста для сравнения */
+    public static String normalize(String s) {
+        if (s == null) return "";
+
+        String normalized = s.toLowerCase();
+
+        return normalized
+                .replace('№', ' ')
+                .replaceAll("[^\\p{L}\\p{N}]+", " ") // оставляем только буквы (всех языков) и цифры
+                .replaceAll("\\s+", " ")            // схлопываем пробелы
+                .trim();
+    }
+
+    /** Значимые токены нормализованного текста (длиннее одного символа) */
+    public static List<String> tokens(String normalized) {
+        return Arrays.stream(normalized.split("\\s+"))
+                .filter(t -> t.length() > 1)
+                .toList();
+    }
+
+    private static double similarityScore(List<String> userTokens, List<String> slotTokens) {
+        if (slotTokens.isEmpty()) {
+            return 0;
+        }
+
+        long matched = userTokens.stream()
+                .filter(token -> slotTokens.stream().anyMatch(slotToken -> TokenSimilarity.isSimilar(slotToken, token)))
+                .count();
+
+        return matched / (double) userTokens.size();
+    }
+
+    private record Entry(SlotSearchDocument document, int[] tokenIds) {}
+}
@@ -0,0 +1,240 @@
+package com.example.group.service.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled stop-word dictionary answering, in time linear in the token length:
+ * <ul>
+ *     <li>{@link #containsAny} — the token contains some stop word (Aho–Corasick);</li>
+ *     <li>{@link #isPartOfAny} — the token is a substring of some stop word
+ *     (suffix automaton over all stop words).</li>
+ * </ul>
+ * Immutable and thread-safe; rebuilt whenever the dictionary is refreshed.
+ */
+public final class StopWordAutomaton {
+
+    public static final StopWordAutomaton EMPTY = build(List.of());
+
+    /** Разделитель слов в суффиксном автомате; после нормализации в токенах не встречается */
+    private static final char SEPARATOR = '\u0000';
+
+    private final Transitions dictionary;
+    private final int[] fail;
+    private final boolean[] accepting;
+
+    private final Transitions substrings;
+
+    private StopWordAutomaton(Transitions dictionary, int[] fail, boolean[] accepting, Transitions substrings) {
+        this.dictionary = dictionary;
+        this.fail = fail;
+        this.accepting = accepting;
+        this.substrings = substrings;
+    }
+
+    public static StopWordAutomaton build(Collection<String> words) {
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        trie.add(new HashMap<>());
+        terminal.add(false);
+
+        SuffixAutomatonBuilder sam = new SuffixAutomatonBuilder();
+        for (String word : words) {
+            if (word == null || word.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new HashMap<>());
+                    terminal.add(false);
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+                sam.extend(c);
+            }
+            terminal.set(state, true);
+            sam.extend(SEPARATOR);
+        }
+
+        Transitions dictionary = Transitions.compact(trie);
+        int[] fail = new int[trie.size()];
+        boolean[] accepting = new boolean[trie.size()];
+        for (int s = 0; s < accepting.length; s++) {
+            accepting[s] = terminal.get(s);
+        }
+
+        // BFS по бору: суффиксная ссылка и признак "здесь заканчивается какое-то стоп-слово"
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : trie.get(0).values()) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : trie.get(state).entrySet()) {
+                char c = edge.getKey();
+                int child = edge.getValue();
+
+                int f = fail[state];
+                while (f != 0 && dictionary.next(f, c) < 0) {
+                    f = fail[f];
+                }
+                int target = dictionary.next(f, c);
+                fail[child] = Math.max(target, 0);
+                accepting[child] |= accepting[fail[child]];
+                queue.add(child);
+            }
+        }
+
+        return new StopWordAutomaton(dictionary, fail, accepting, Transitions.compact(sam.states));
+    }
+
+    /** Есть ли в {@code text} хотя бы одно стоп-слово как подстрока */
+    public boolean containsAny(String text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next = dictionary.next(state, c);
+            while (next < 0 && state != 0) {
+                state = fail[state];
+                next = dictionary.next(state, c);
+            }
+            state = Math.max(next, 0);
+            if (accepting[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Является ли непустой {@code text} подстрокой хотя бы одного стоп-слова */
+    public boolean isPartOfAny(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = substrings.next(state, text.charAt(i));
+            if (state < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Переходы всех состояний в плоских массивах; метки внутри состояния отсортированы */
+    private static final class Transitions {
+
+        private final int[] offsets;
+        private final char[] labels;
+        private final int[] targets;
+
+        private Transitions(int[] offsets, char[] labels, int[] targets) {
+            this.offsets = offsets;
+            this.labels = labels;
+            this.targets = targets;
+        }
+
+        static Transitions compact(List<Map<Character, Integer>> states) {
+            int total = 0;
+            for (Map<Character, Integer> edges : states) {
+                total += edges.size();
+            }
+
+            int[] offsets = new int[states.size() + 1];
+            char[] labels = new char[total];
+            int[] targets = new int[total];
+            int pos = 0;
+            for (int s = 0; s < states.size(); s++) {
+                offsets[s] = pos;
+                Map<Character, Integer> edges = states.get(s);
+                char[] keys = new char[edges.size()];
+                int k = 0;
+                for (char c : edges.keySet()) {
+                    keys[k++] = c;
+                }
+                Arrays.sort(keys);
+                for (char c : keys) {
+                    labels[pos] = c;
+                    targets[pos] = edges.get(c);
+                    pos++;
+                }
+            }
+            offsets[states.size()] = pos;
+            return new Transitions(offsets, labels, targets);
+        }
+
+        int next(int state, char c) {
+            int lo = offsets[state];
+            int hi = offsets[state + 1] - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char label = labels[mid];
+                if (label < c) {
+                    lo = mid + 1;
+                } else if (label > c) {
+                    hi = mid - 1;
+                } else {
+                    return targets[mid];
+                }
+            }
+            return -1;
+        }
+    }
+
+    /** Классическое онлайн-построение суффиксного автомата */
+    private static final class SuffixAutomatonBuilder {
+
+        private final List<Map<Character, Integer>> states = new ArrayList<>();
+        private final List<Integer> links = new ArrayList<>();
+        private final List<Integer> lengths = new ArrayList<>();
+        private int last;
+
+        SuffixAutomatonBuilder() {
+            addState(0, -1, new HashMap<>());
+            last = 0;
+        }
+
+        void extend(char c) {
+            int cur = addState(lengths.get(last) + 1, -1, new HashMap<>());
+            int p = last;
+            while (p != -1 && !states.get(p).containsKey(c)) {
+                states.get(p).put(c, cur);
+                p = links.get(p);
+            }
+
+            if (p == -1) {
+                links.set(cur, 0);
+            } else {
+                int q = states.get(p).get(c);
+                if (lengths.get(p) + 1 == lengths.get(q)) {
+                    links.set(cur, q);
+                } else {
+                    int clone = addState(lengths.get(p) + 1, links.get(q), new HashMap<>(states.get(q)));
+                    while (p != -1 && states.get(p).get(c) == q) {
+                        states.get(p).put(c, clone);
+                        p = links.get(p);
+                    }
+                    links.set(q, clone);
+                    links.set(cur, clone);
+                }
+            }
+            last = cur;
+        }
+
+        private int addState(int length, int link, Map<Character, Integer> edges) {
+            states.add(edges);
+            links.add(link);
+            lengths.add(length);
+            return states.size() - 1;
+        }
+    }
+}
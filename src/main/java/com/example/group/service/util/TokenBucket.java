@@ -0,0 +1,68 @@
+package com.example.group.service.util;
+
+/**
+ * Token bucket refilled continuously up to {@code capacity}. A {@code reserve} lets low-priority
+ * callers take a token only while more than {@code reserve} are left, keeping headroom for urgent ones.
+ * Not thread-safe: callers synchronize externally. Times are {@link System#nanoTime()} values.
+ */
+public final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long refilledAt;
+    private long blockedUntil;
+
+    public TokenBucket(double capacity, double tokensPerSecond, long now) {
+        this.capacity = Math.max(1, capacity);
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = this.capacity;
+        this.refilledAt = now;
+        this.blockedUntil = now;
+    }
+
+    /** Takes one token if more than {@code reserve} are available and the bucket is not blocked */
+    public boolean tryTake(double reserve, long now) {
+        refill(now);
+        if (now - blockedUntil < 0 || tokens < 1 + effective(reserve)) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /** Nanoseconds until {@link #tryTake} with the same {@code reserve} can succeed */
+    public long nanosUntilAvailable(double reserve, long now) {
+        refill(now);
+        long blocked = Math.max(0, blockedUntil - now);
+        double missing = 1 + effective(reserve) - tokens;
+        long refill = missing <= 0 ? 0 : (long) Math.ceil(missing / tokensPerNano);
+        return Math.max(blocked, refill);
+    }
+
+    /** No tokens are handed out until {@code until}, e.g. after a server-side {@code retry_after} */
+    public void blockUntil(long until) {
+        if (until - blockedUntil > 0) {
+            blockedUntil = until;
+        }
+    }
+
+    /** Full and not blocked: dropping the bucket loses no state */
+    public boolean isIdle(long now) {
+        refill(now);
+        return tokens >= capacity && now - blockedUntil >= 0;
+    }
+
+    private double effective(double reserve) {
+        return Math.max(0, Math.min(reserve, capacity - 1));
+    }
+
+    private void refill(long now) {
+        long elapsed = now - refilledAt;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
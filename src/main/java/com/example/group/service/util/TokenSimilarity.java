@@ -0,0 +1,46 @@
+package com.example.group.service.util;
+
+/**
+ * Token comparison used by the slot matcher: one token contains the other, or they are within
+ * Levenshtein distance 1. The distance check is a single pass over the common prefix plus one
+ * region compare — no matrix, no allocation. Works on UTF-16 chars, so Cyrillic letters are
+ * compared as single symbols, same as the full-matrix version it replaced.
+ */
+public final class TokenSimilarity {
+
+    private TokenSimilarity() {
+    }
+
+    public static boolean isSimilar(String a, String b) {
+        if (a.contains(b) || b.contains(a)) {
+            return true;
+        }
+
+        return withinOneEdit(a, b);
+    }
+
+    /** Расстояние Левенштейна между строками не больше 1 */
+    public static boolean withinOneEdit(String a, String b) {
+        if (a.length() > b.length()) {
+            String t = a;
+            a = b;
+            b = t;
+        }
+        int shorter = a.length();
+        if (b.length() - shorter > 1) {
+            return false;
+        }
+
+        int i = 0;
+        while (i < shorter && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (i == shorter) {
+            return true; // равны или длинная строка — короткая плюс один символ в конце
+        }
+        if (shorter == b.length()) {
+            return a.regionMatches(i + 1, b, i + 1, shorter - i - 1); // одна замена
+        }
+        return a.regionMatches(i, b, i + 1, shorter - i); // одна вставка
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.group.service.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index from padded character trigrams to vocabulary tokens.
+ * <p>
+ * For a query of length >= 3 the candidates are every token sharing at least one trigram with it,
+ * plus all two-letter tokens (too short to be found by trigrams). That set is guaranteed to contain
+ * every token that contains the query, is contained in it, or is within edit distance 1 of it
+ * (both sides at least two chars long). Shorter queries get the whole vocabulary.
+ * Candidates are returned in id order: every one of them is scored by the caller anyway.
+ */
+public final class TrigramIndex {
+
+    /** Дополнение по краям; нормализованные токены состоят из букв и цифр и его не содержат */
+    private static final char PAD = '\u0000';
+
+    private final String[] tokens;
+    private final long[] keys;
+    private final int[][] postings;
+    private final int[] shortTokens;
+
+    private TrigramIndex(String[] tokens, long[] keys, int[][] postings, int[] shortTokens) {
+        this.tokens = tokens;
+        this.keys = keys;
+        this.postings = postings;
+        this.shortTokens = shortTokens;
+    }
+
+    /** @param vocabulary различные токены; id токена — его позиция в списке */
+    public static TrigramIndex build(List<String> vocabulary) {
+        Map<Long, List<Integer>> grams = new HashMap<>();
+        List<Integer> shorts = new ArrayList<>();
+        for (int id = 0; id < vocabulary.size(); id++) {
+            String token = vocabulary.get(id);
+            if (token.length() < 3) {
+                shorts.add(id);
+            }
+            for (long key : trigrams(token)) {
+                List<Integer> list = grams.computeIfAbsent(key, k -> new ArrayList<>());
+                if (list.isEmpty() || list.get(list.size() - 1) != id) {
+                    list.add(id);
+                }
+            }
+        }
+
+        long[] keys = grams.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        int[][] postings = new int[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            postings[i] = grams.get(keys[i]).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        return new TrigramIndex(
+                vocabulary.toArray(String[]::new),
+                keys,
+                postings,
+                shorts.stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+
+    public int size() {
+        return tokens.length;
+    }
+
+    public String token(int id) {
+        return tokens[id];
+    }
+
+    /** Id токенов-кандидатов для {@code query} по возрастанию */
+    public int[] candidates(String query) {
+        if (query.length() < 3) {
+            int[] all = new int[tokens.length];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+
+        BitSet shared = new BitSet(tokens.length);
+        for (long key : trigrams(query)) {
+            int slot = Arrays.binarySearch(keys, key);
+            if (slot < 0) {
+                continue;
+            }
+            for (int id : postings[slot]) {
+                shared.set(id);
+            }
+        }
+        for (int id : shortTokens) {
+            shared.set(id);
+        }
+        return shared.stream().toArray();
+    }
+
+    /** Различные триграммы строки с двумя символами дополнения с каждой стороны */
+    private static long[] trigrams(String token) {
+        int n = token.length();
+        long[] result = new long[n + 2];
+        int count = 0;
+        for (int i = -2; i < n; i++) {
+            long key = ((long) charAt(token, i) << 32) | ((long) charAt(token, i + 1) << 16) | charAt(token, i + 2);
+            boolean seen = false;
+            for (int j = 0; j < count && !seen; j++) {
+                seen = result[j] == key;
+            }
+            if (!seen) {
+                result[count++] = key;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static char charAt(String token, int i) {
+        return i < 0 || i >= token.length() ? PAD : token.charAt(i);
+    }
+}
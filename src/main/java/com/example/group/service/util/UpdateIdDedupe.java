@@ -0,0 +1,101 @@
+package com.example.group.service.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity set of recently seen update ids.
+ * Ids live in a primitive open-addressing table (linear probing, load factor <= 0.5);
+ * a ring buffer keeps insertion order and evicts the oldest id once capacity is reached.
+ * No boxing and no allocation after construction; every operation is O(1).
+ */
+public final class UpdateIdDedupe {
+
+    private static final long EMPTY = -1L;
+
+    private final int[] ring;
+    private final long[] table;
+    private final int mask;
+
+    private int head;
+    private int size;
+
+    public UpdateIdDedupe(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.ring = new int[capacity];
+
+        int tableSize = Integer.highestOneBit(capacity) << 2; // степень двойки, не меньше 2 * capacity
+        this.table = new long[tableSize];
+        this.mask = tableSize - 1;
+        Arrays.fill(table, EMPTY);
+    }
+
+    /** @return true, если id встретился впервые (и теперь запомнен) */
+    public synchronized boolean markSeen(int id) {
+        long key = id & 0xFFFFFFFFL;
+        if (find(key) >= 0) {
+            return false;
+        }
+
+        if (size == ring.length) {
+            remove(ring[head] & 0xFFFFFFFFL);
+        } else {
+            size++;
+        }
+
+        int slot = home(key);
+        while (table[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = key;
+
+        ring[head] = id;
+        head = head + 1 == ring.length ? 0 : head + 1;
+        return true;
+    }
+
+    public synchronized boolean contains(int id) {
+        return find(id & 0xFFFFFFFFL) >= 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int find(long key) {
+        int slot = home(key);
+        long current;
+        while ((current = table[slot]) != EMPTY) {
+            if (current == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /** Удаление со сдвигом назад — без "надгробий", цепочки проб остаются короткими */
+    private void remove(long key) {
+        int hole = find(key);
+        if (hole < 0) {
+            return;
+        }
+
+        int next = (hole + 1) & mask;
+        while (table[next] != EMPTY) {
+            int home = home(table[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[hole] = EMPTY;
+    }
+
+    private int home(long key) {
+        int h = (int) key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
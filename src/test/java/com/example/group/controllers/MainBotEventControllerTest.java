@@ -0,0 +1,97 @@
+package com.example.group.controllers;
+
+import com.example.group.dto.MainBotEventDTO;
+import com.example.group.service.MainBotEventHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Основной бот со стороны приёма событий: POST с телом события и общим секретом в заголовке.
+ */
+class MainBotEventControllerTest {
+
+    private static final String PATH = "/internal/main-bot/events";
+    private static final String SECRET = "s3cr3t";
+
+    private static final String EVENT = """
+            {"type": "BOOKING_CHANGED", "slotIds": [101, 102]}
+            """;
+
+    private MainBotEventHandler handler;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        handler = mock(MainBotEventHandler.class);
+        mvc = mvc(SECRET);
+    }
+
+    @Test
+    void acceptsEventAndHandsItOver() throws Exception {
+        mvc.perform(post(PATH)
+                        .header("X-Main-Bot-Token", SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(EVENT))
+                .andExpect(status().isAccepted());
+
+        ArgumentCaptor<MainBotEventDTO> event = ArgumentCaptor.forClass(MainBotEventDTO.class);
+        verify(handler).accept(event.capture());
+        assertEquals(MainBotEventDTO.Type.BOOKING_CHANGED, event.getValue().getType());
+        assertEquals(List.of(101L, 102L), event.getValue().getSlotIds());
+    }
+
+    @Test
+    void rejectsWrongToken() throws Exception {
+        mvc.perform(post(PATH)
+                        .header("X-Main-Bot-Token", "guess")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(EVENT))
+                .andExpect(status().isUnauthorized());
+
+        verify(handler, never()).accept(any());
+    }
+
+    @Test
+    void rejectsMissingToken() throws Exception {
+        mvc.perform(post(PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(EVENT))
+                .andExpect(status().isUnauthorized());
+
+        verify(handler, never()).accept(any());
+    }
+
+    @Test
+    void rejectsEverythingWhenSecretIsNotConfigured() throws Exception {
+        mvc("").perform(post(PATH)
+                        .header("X-Main-Bot-Token", "")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(EVENT))
+                .andExpect(status().isUnauthorized());
+
+        verify(handler, never()).accept(any());
+    }
+
+    private MockMvc mvc(String secret) {
+        MainBotEventController controller = new MainBotEventController(handler);
+        ReflectionTestUtils.setField(controller, "secret", secret);
+        return MockMvcBuilders.standaloneSetup(controller)
+                .addPlaceholderValue("mainbot.events.path", PATH)
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.group.controllers;
+
+import com.example.group.config.BotConfig;
+import com.example.group.service.TelegramBot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Telegram со стороны вебхука: POST с телом апдейта и заголовком секрета,
+ * как его шлёт Bot API после {@code setWebhook}.
+ */
+class TelegramWebhookControllerTest {
+
+    private static final String PATH = "/telegram/webhook";
+    private static final String SECRET = "s3cr3t";
+
+    private static final String UPDATE = """
+            {
+              "update_id": 700001,
+              "message": {
+                "message_id": 42,
+                "date": 1715760000,
+                "chat": {"id": -1001234567890, "type": "supergroup", "title": "Зміни"},
+                "from": {"id": 777, "is_bot": false, "first_name": "Іван", "last_name": "Петренко"},
+                "text": "15.05 Шоурум 10:00-18:00"
+              }
+            }
+            """;
+
+    private TelegramBot bot;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        bot = mock(TelegramBot.class);
+        BotConfig config = new BotConfig();
+        config.setWebhookSecret(SECRET);
+
+        mvc = MockMvcBuilders.standaloneSetup(new TelegramWebhookController(bot, config))
+                .addPlaceholderValue("bot.webhook.path", PATH)
+                .build();
+    }
+
+    @Test
+    void passesUpdateToBotAndAnswersOk() throws Exception {
+        mvc.perform(post(PATH)
+                        .header("X-Telegram-Bot-Api-Secret-Token", SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bot).onUpdateReceived(update.capture());
+        assertEquals(700001, update.getValue().getUpdateId());
+        assertEquals(-1001234567890L, update.getValue().getMessage().getChatId());
+        assertEquals("15.05 Шоурум 10:00-18:00", update.getValue().getMessage().getText());
+    }
+
+    @Test
+    void rejectsWrongSecret() throws Exception {
+        mvc.perform(post(PATH)
+                        .header("X-Telegram-Bot-Api-Secret-Token", "guess")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE))
+                .andExpect(status().isUnauthorized());
+
+        verify(bot, never()).onUpdateReceived(any());
+    }
+
+    @Test
+    void rejectsMissingSecret() throws Exception {
+        mvc.perform(post(PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE))
+                .andExpect(status().isUnauthorized());
+
+        verify(bot, never()).onUpdateReceived(any());
+    }
+
+    @Test
+    void rejectsEverythingWhenSecretIsNotConfigured() throws Exception {
+        MockMvc open = MockMvcBuilders.standaloneSetup(new TelegramWebhookController(bot, new BotConfig()))
+                .addPlaceholderValue("bot.webhook.path", PATH)
+                .build();
+
+        open.perform(post(PATH)
+                        .header("X-Telegram-Bot-Api-Secret-Token", "")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE))
+                .andExpect(status().isUnauthorized());
+
+        verify(bot, never()).onUpdateReceived(any());
+    }
+
+    /** Не-2xx заставил бы Telegram повторять тот же апдейт */
+    @Test
+    void answersOkEvenWhenDispatchFails() throws Exception {
+        doThrow(new IllegalStateException("dispatcher is shut down")).when(bot).onUpdateReceived(any());
+
+        mvc.perform(post(PATH)
+                        .header("X-Telegram-Bot-Api-Secret-Token", SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.group.controllers.impl;
+
+import com.example.group.controllers.MainBotApiClient;
+import com.example.group.dto.SlotBatchDTO;
+import com.example.group.dto.SlotDTO;
+import com.example.group.service.exception.BookingConflictException;
+import com.example.group.service.exception.MainBotUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoalescingMainBotApiClientTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 15);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FakeApi api = new FakeApi();
+
+    @Test
+    void concurrentReadsOfTheSameDateShareOneCall() throws Exception {
+        CoalescingMainBotApiClient client = client(0, 5);
+        api.release = new CountDownLatch(1);
+
+        CompletableFuture<List<SlotDTO>> first = CompletableFuture.supplyAsync(() -> client.getSlotsForDate(DATE));
+        awaitTrue(() -> api.calls.get() == 1);
+        CompletableFuture<List<SlotDTO>> second = CompletableFuture.supplyAsync(() -> client.getSlotsForDate(DATE));
+        awaitTrue(() -> coalesced("slots", "joined") == 1);
+
+        api.release.countDown();
+
+        assertSame(first.get(2, TimeUnit.SECONDS), second.get(2, TimeUnit.SECONDS));
+        assertEquals(1, api.calls.get());
+        assertEquals(1.0, coalesced("slots", "call"));
+    }
+
+    @Test
+    void sequentialReadsGoUpstreamWithoutFreshWindow() {
+        CoalescingMainBotApiClient client = client(0, 5);
+
+        client.getSlotsForDate(DATE);
+        client.getSlotsForDate(DATE);
+
+        assertEquals(2, api.calls.get());
+    }
+
+    @Test
+    void freshAnswerIsReusedUntilBooking() {
+        CoalescingMainBotApiClient client = client(60_000, 5);
+
+        client.getSlotsForDate(DATE);
+        client.getSlotsForDate(DATE);
+        assertEquals(1, api.calls.get());
+        assertEquals(1.0, coalesced("slots", "fresh"));
+
+        // после записи счётчики мест другие — свежий ответ больше не годится
+        client.createBooking(1L, 1L, null, "Ivan", "Petrenko");
+        client.getSlotsForDate(DATE);
+        assertEquals(2, api.calls.get());
+    }
+
+    @Test
+    void failedReadFallsBackToLastGoodAnswerAndIsMarkedStale() {
+        CoalescingMainBotApiClient client = client(0, 5);
+        List<SlotDTO> loaded = client.getSlotsForDate(DATE);
+        assertFalse(client.lastReadWasStale());
+
+        api.failure = new IllegalStateException("connection refused");
+
+        assertSame(loaded, client.getSlotsForDate(DATE));
+        assertTrue(client.lastReadWasStale());
+        assertEquals(1.0, registry.get("mainbot.api.stale").tag("endpoint", "slots").counter().count());
+        assertThrows(MainBotUnavailableException.class, () -> client.getSlotsForDate(DATE.plusDays(1)));
+    }
+
+    @Test
+    void openCircuitRejectsBookingWithoutARequest() {
+        CoalescingMainBotApiClient client = client(0, 1);
+        api.failure = new IllegalStateException("read timed out");
+
+        assertThrows(IllegalStateException.class, () -> client.createBooking(1L, 1L, null, "Ivan", "Petrenko"));
+        assertThrows(MainBotUnavailableException.class, () -> client.createBooking(1L, 1L, null, "Ivan", "Petrenko"));
+
+        assertEquals(1, api.bookings.get());
+    }
+
+    /** Отказ основного бота по существу (уже записан и т.п.) — ответ, а не сбой: автомат не открывается */
+    @Test
+    void bookingRejectionDoesNotOpenCircuit() {
+        CoalescingMainBotApiClient client = client(0, 1);
+        api.failure = new BookingConflictException("already booked");
+
+        assertThrows(BookingConflictException.class, () -> client.createBooking(1L, 1L, null, "Ivan", "Petrenko"));
+        assertThrows(BookingConflictException.class, () -> client.createBooking(1L, 1L, null, "Ivan", "Petrenko"));
+
+        assertEquals(2, api.bookings.get());
+    }
+
+    private CoalescingMainBotApiClient client(long freshMs, int failureThreshold) {
+        return new CoalescingMainBotApiClient(api, registry, freshMs, failureThreshold, 60_000);
+    }
+
+    private double coalesced(String endpoint, String result) {
+        return registry.get("mainbot.api.coalesce").tag("endpoint", endpoint).tag("result", result).counter().count();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 3 s");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class FakeApi implements MainBotApiClient {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger bookings = new AtomicInteger();
+        volatile CountDownLatch release;
+        volatile RuntimeException failure;
+
+        @Override
+        public List<SlotDTO> getSlotsForDate(LocalDate date) {
+            calls.incrementAndGet();
+            if (release != null) {
+                try {
+                    release.await(3, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            SlotDTO slot = new SlotDTO();
+            slot.setId(date.toEpochDay());
+            return List.of(slot);
+        }
+
+        @Override
+        public void createBooking(Long telegramUserId, Long slotId, String username, String firstName, String lastName) {
+            bookings.incrementAndGet();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        public List<SlotDTO> getUpcomingSlots() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SlotDTO getSlotById(Long slotId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SlotDTO getExpiredSlotById(Long slotId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SlotBatchDTO getSlotsByIds(Collection<Long> slotIds) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
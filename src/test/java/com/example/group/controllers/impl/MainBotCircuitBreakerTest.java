@@ -0,0 +1,93 @@
+package com.example.group.controllers.impl;
+
+import com.example.group.controllers.MainBotEndpoint;
+import com.example.group.controllers.impl.MainBotCircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MainBotCircuitBreakerTest {
+
+    private static final MainBotEndpoint SLOTS = MainBotEndpoint.SLOTS_BY_DATE;
+    private static final long OPEN_MS = 100;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MainBotCircuitBreaker breaker = new MainBotCircuitBreaker(registry, 3, Duration.ofMillis(OPEN_MS));
+
+    @Test
+    void staysClosedUntilFailuresInARowReachThreshold() {
+        breaker.onFailure(SLOTS);
+        breaker.onFailure(SLOTS);
+        breaker.onSuccess(SLOTS);
+        breaker.onFailure(SLOTS);
+        breaker.onFailure(SLOTS);
+
+        assertEquals(State.CLOSED, breaker.state(SLOTS));
+        assertTrue(breaker.tryAcquire(SLOTS));
+    }
+
+    @Test
+    void opensAfterThresholdAndRejectsWithoutCalls() {
+        failTimes(SLOTS, 3);
+
+        assertEquals(State.OPEN, breaker.state(SLOTS));
+        assertFalse(breaker.tryAcquire(SLOTS));
+        assertFalse(breaker.tryAcquire(SLOTS));
+        assertEquals(2.0, registry.get("mainbot.api.circuit.rejected").tag("endpoint", SLOTS.key()).counter().count());
+        assertEquals(1.0, stateGauge(SLOTS));
+    }
+
+    @Test
+    void halfOpensAfterOpenPeriodAndLetsOneTrialThrough() throws InterruptedException {
+        failTimes(SLOTS, 3);
+        Thread.sleep(OPEN_MS + 50);
+
+        assertEquals(State.HALF_OPEN, breaker.state(SLOTS));
+        assertEquals(2.0, stateGauge(SLOTS));
+        assertTrue(breaker.tryAcquire(SLOTS));
+        assertFalse(breaker.tryAcquire(SLOTS), "only one trial call while half-open");
+
+        breaker.onSuccess(SLOTS);
+
+        assertEquals(State.CLOSED, breaker.state(SLOTS));
+        assertTrue(breaker.tryAcquire(SLOTS));
+        assertTrue(breaker.tryAcquire(SLOTS));
+    }
+
+    @Test
+    void failedTrialOpensAgainAtOnce() throws InterruptedException {
+        failTimes(SLOTS, 3);
+        Thread.sleep(OPEN_MS + 50);
+
+        assertTrue(breaker.tryAcquire(SLOTS));
+        breaker.onFailure(SLOTS);
+
+        assertEquals(State.OPEN, breaker.state(SLOTS));
+        assertFalse(breaker.tryAcquire(SLOTS));
+    }
+
+    @Test
+    void endpointsHaveSeparateCircuits() {
+        failTimes(SLOTS, 3);
+
+        assertEquals(State.OPEN, breaker.state(SLOTS));
+        assertEquals(State.CLOSED, breaker.state(MainBotEndpoint.BOOKINGS));
+        assertTrue(breaker.tryAcquire(MainBotEndpoint.BOOKINGS));
+    }
+
+    private void failTimes(MainBotEndpoint endpoint, int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(breaker.tryAcquire(endpoint));
+            breaker.onFailure(endpoint);
+        }
+    }
+
+    private double stateGauge(MainBotEndpoint endpoint) {
+        return registry.get("mainbot.api.circuit.state").tag("endpoint", endpoint.key()).gauge().value();
+    }
+}
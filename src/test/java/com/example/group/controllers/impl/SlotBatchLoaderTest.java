@@ -0,0 +1,120 @@
+package com.example.group.controllers.impl;
+
+import com.example.group.dto.SlotBatchDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Сколько запросов уходит в основной бот на один проход {@code SlotPostUpdater}: заглушка сервера
+ * ждёт ровно перечисленные запросы, лишний или недостающий валит тест.
+ */
+class SlotBatchLoaderTest {
+
+    private static final String BASE = "http://main-bot";
+
+    private MockRestServiceServer server;
+    private MainBotApiClientImpl client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+
+        client = new MainBotApiClientImpl(restTemplate, new SimpleMeterRegistry(), new ObjectMapper().findAndRegisterModules(), 2);
+        ReflectionTestUtils.setField(client, "baseUrl", BASE);
+    }
+
+    @Test
+    void loadsTrackedSlotsWithOneRequestPerChunk() {
+        expectBatch("1,2", """
+                {"active": [{"id": 1}, {"id": 2}], "expired": []}""");
+        expectBatch("3,4", """
+                {"active": [{"id": 3}], "expired": [{"id": 4}]}""");
+        expectBatch("5", """
+                {"active": [], "expired": []}""");
+
+        SlotBatchDTO batch = client.getSlotsByIds(List.of(1L, 2L, 3L, 4L, 5L));
+
+        server.verify();
+        assertEquals(Set.of(1L, 2L, 3L), batch.activeById().keySet());
+        assertEquals(Set.of(4L), batch.expiredById().keySet());
+    }
+
+    @Test
+    void dropsDuplicateAndNullIdsBeforeRequesting() {
+        expectBatch("7,8", """
+                {"active": [{"id": 7}, {"id": 8}], "expired": []}""");
+
+        client.getSlotsByIds(Arrays.asList(7L, null, 7L, 8L, 8L));
+
+        server.verify();
+    }
+
+    /** Старый основной бот без /slots/batch: поштучно, и батч больше не пробуется */
+    @Test
+    void fallsBackToSingleRequestsWhenBatchIsMissing() {
+        server.expect(once(), requestTo(BASE + "/slots/batch?ids=1,2"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+        expectGet("/slots/1", withSuccess("""
+                {"id": 1}""", MediaType.APPLICATION_JSON));
+        expectGet("/slots/2", withStatus(HttpStatus.NOT_FOUND));
+        expectGet("/slots/upcoming", withSuccess("[]", MediaType.APPLICATION_JSON));
+        expectGet("/slots/expired/2", withSuccess("""
+                {"id": 2}""", MediaType.APPLICATION_JSON));
+        // следующий чанк — сразу поштучно, без повторного /slots/batch
+        expectGet("/slots/3", withSuccess("""
+                {"id": 3}""", MediaType.APPLICATION_JSON));
+
+        SlotBatchDTO batch = client.getSlotsByIds(List.of(1L, 2L, 3L));
+
+        server.verify();
+        assertEquals(Set.of(1L, 3L), batch.activeById().keySet());
+        assertEquals(Set.of(2L), batch.expiredById().keySet());
+    }
+
+    /** Ошибка основного бота не должна превращаться в N поштучных запросов */
+    @Test
+    void propagatesServerErrorsWithoutFallback() {
+        server.expect(once(), requestTo(BASE + "/slots/batch?ids=1,2"))
+                .andRespond(withServerError());
+
+        assertThrows(HttpServerErrorException.class, () -> client.getSlotsByIds(List.of(1L, 2L, 3L)));
+
+        server.verify();
+    }
+
+    private void expectBatch(String ids, String body) {
+        server.expect(once(), requestTo(BASE + "/slots/batch?ids=" + ids))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+    }
+
+    private void expectGet(String path, ResponseCreator response) {
+        server.expect(once(), requestTo(BASE + path))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(response);
+    }
+}
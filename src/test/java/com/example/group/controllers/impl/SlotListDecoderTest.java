@@ -0,0 +1,169 @@
+package com.example.group.controllers.impl;
+
+import com.example.group.dto.LazyBookingList;
+import com.example.group.dto.SlotBookingDTO;
+import com.example.group.dto.SlotDTO;
+import com.example.group.service.util.SlotBookings;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Потоковый декодер должен давать те же слоты, что и {@code ObjectMapper.readValue(SlotDTO[].class)},
+ * а заявки — хранить ровно байты своего массива.
+ */
+class SlotListDecoderTest {
+
+    private static final String SLOTS = """
+            [
+              {"id": 1, "placeName": "Склад «Південний»", "cityName": "Київ",
+               "start": "2030-01-15T10:00:00", "end": "2030-01-15T18:30",
+               "capacity": 5, "bookedCount": 3, "innRequired": true, "status": "RESERVED",
+               "bookings": [
+                 {"id": 11, "status": "CONFIRMED", "telegramUserId": 101, "firstName": " Іван ", "lastName": "Петренко"},
+                 {"id": 12, "status": "CANCELLED", "firstName": "Олена", "lastName": "Коваль"},
+                 {"id": 13, "firstName": "Марія", "lastName": null, "phone": "+380501234567"}
+               ],
+               "unknown": {"nested": [1, 2, {"deep": true}]}},
+              {"id": 2, "placeName": "Склад «Південний»", "cityName": "Київ",
+               "start": [2030, 1, 16, 8, 0], "end": "2030-01-16T16:00:00.250",
+               "capacity": 2, "bookedCount": 0, "bookings": []},
+              {"id": 3, "placeName": "Офіс", "cityName": "Львів", "start": null, "end": null,
+               "capacity": 1, "bookedCount": 1, "bookings": null},
+              null
+            ]""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final SlotListDecoder decoder = new SlotListDecoder(objectMapper);
+
+    @Test
+    void decodesTheSameSlotsAsObjectMapper() throws Exception {
+        byte[] json = SLOTS.getBytes(StandardCharsets.UTF_8);
+
+        List<SlotDTO> expected = Arrays.asList(objectMapper.readValue(json, SlotDTO[].class));
+        List<SlotDTO> actual = decoder.decode(json);
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameSlot(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    void precomputesCountsAndFingerprintWithoutParsingBookings() throws Exception {
+        byte[] json = SLOTS.getBytes(StandardCharsets.UTF_8);
+        SlotDTO expected = objectMapper.readValue(json, SlotDTO[].class)[0];
+
+        SlotDTO actual = decoder.decode(json).get(0);
+
+        LazyBookingList bookings = assertInstanceOf(LazyBookingList.class, actual.getBookings());
+        assertEquals(3, bookings.size());
+        assertEquals(2, bookings.activeCount());
+        assertEquals(SlotBookings.activeCount(expected), SlotBookings.activeCount(actual));
+        assertEquals(SlotBookings.activeFingerprint(expected), SlotBookings.activeFingerprint(actual));
+    }
+
+    /**
+     * Перед массивом заявок — кириллица (по 2 байта на символ) и разные отступы: если смещения
+     * считались бы в символах или с потерей границы, сохранённые байты захватили бы соседний текст.
+     */
+    @Test
+    void keepsExactlyTheBytesOfTheBookingsArray() {
+        String bookings = """
+                [{"id": 7, "status": "PENDING", "firstName": "Тарас", "lastName": "Шевченко"}]""";
+        String json = "[{\"placeName\": \"Довга назва складу з кирилицею\", \"bookings\": " + bookings + ", \"capacity\": 1},"
+                + "{\"id\": 2,\"bookings\":" + bookings + "}]";
+
+        List<SlotDTO> slots = decoder.decode(json.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(slots.get(0).getBookings(), slots.get(1).getBookings());
+        assertEquals(slots.get(0).getBookings().hashCode(), slots.get(1).getBookings().hashCode());
+        assertEquals(new LazyBookingList(bookings.getBytes(StandardCharsets.UTF_8), 1, 1, 0, bytes -> List.of()),
+                slots.get(0).getBookings());
+
+        SlotBookingDTO booking = slots.get(1).getBookings().get(0);
+        assertEquals(Long.valueOf(7), booking.getId());
+        assertEquals("Шевченко", booking.getLastName());
+    }
+
+    @Test
+    void differentBookingsAreNotEqual() {
+        String json = """
+                [{"id": 1, "bookings": [{"id": 1, "status": "PENDING"}]},
+                 {"id": 1, "bookings": [{"id": 1, "status": "CONFIRMED"}]}]""";
+
+        List<SlotDTO> slots = decoder.decode(json.getBytes(StandardCharsets.UTF_8));
+
+        assertNotEquals(slots.get(0), slots.get(1));
+    }
+
+    @Test
+    void emptyAndNullBodiesAreEmptyLists() {
+        assertTrue(decoder.decode(new byte[0]).isEmpty());
+        assertTrue(decoder.decode("null".getBytes(StandardCharsets.UTF_8)).isEmpty());
+        assertTrue(decoder.decode("[]".getBytes(StandardCharsets.UTF_8)).isEmpty());
+    }
+
+    @Test
+    void parsesIsoDateTimesFromTheMiddleOfABuffer() {
+        assertEquals(LocalDateTime.of(2030, 1, 15, 10, 0), parse("2030-01-15T10:00"));
+        assertEquals(LocalDateTime.of(2030, 1, 15, 10, 0, 45), parse("2030-01-15T10:00:45"));
+        assertEquals(LocalDateTime.of(2030, 1, 15, 10, 0, 45, 500_000_000), parse("2030-01-15T10:00:45.5"));
+        assertEquals(LocalDateTime.of(2030, 1, 15, 10, 0, 45, 123_456_789), parse("2030-01-15T10:00:45.123456789"));
+    }
+
+    @Test
+    void leavesOtherFormsToJavaTimeModule() {
+        assertNull(parse("2030-01-15 10:00"));
+        assertNull(parse("2030-01-15T10:00Z"));
+        assertNull(parse("2030-01-15T10:00:45+02:00"));
+        assertNull(parse("2030-01-15T10:00:45."));
+        assertNull(parse("2030-01-15T10:00:45.1234567890"));
+        assertNull(parse("2030-13-15T10:00"));
+        assertNull(parse("2030-02-30T10:00"));
+        assertNull(parse("2030-01-15T1a:00"));
+        assertNull(parse("2030-01-15"));
+    }
+
+    /** Строка окружена мусором, как в буфере парсера: разбор не должен выходить за offset/length */
+    private static LocalDateTime parse(String value) {
+        char[] buffer = ("\"x\":\"" + value + "\",").toCharArray();
+        return SlotListDecoder.parseIsoDateTime(buffer, 5, value.length());
+    }
+
+    private static void assertSameSlot(SlotDTO expected, SlotDTO actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getPlaceName(), actual.getPlaceName());
+        assertEquals(expected.getCityName(), actual.getCityName());
+        assertEquals(expected.getStart(), actual.getStart());
+        assertEquals(expected.getEnd(), actual.getEnd());
+        assertEquals(expected.getCapacity(), actual.getCapacity());
+        assertEquals(expected.getBookedCount(), actual.getBookedCount());
+        assertEquals(expected.isInnRequired(), actual.isInnRequired());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        if (expected.getBookings() == null) {
+            assertNull(actual.getBookings());
+        } else {
+            // ленивый список равен только такому же ленивому — заявки сравниваем поэлементно
+            assertEquals(expected.getBookings(), new ArrayList<>(actual.getBookings()));
+        }
+    }
+}
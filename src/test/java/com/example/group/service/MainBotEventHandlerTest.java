@@ -0,0 +1,129 @@
+package com.example.group.service;
+
+import com.example.group.dto.MainBotEventDTO;
+import com.example.group.dto.MainBotEventDTO.Type;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Обработчик с настоящим фоновым потоком: пока идёт обновление постов, новые события
+ * только копят слоты и потом обрабатываются одним батчем.
+ */
+class MainBotEventHandlerTest {
+
+    private final List<Set<Long>> refreshed = Collections.synchronizedList(new ArrayList<>());
+    private final MainBotEventFeed feed = new MainBotEventFeed(300_000, 600_000);
+
+    private SlotPostUpdater slotPostUpdater;
+    private EveningScheduler eveningScheduler;
+    private LeaderboardScheduler leaderboardScheduler;
+    private SlotCatalog slotCatalog;
+    private MainBotEventHandler handler;
+    private volatile CountDownLatch release;
+    private volatile Set<Long> untracked = Set.of();
+
+    @BeforeEach
+    void setUp() {
+        slotPostUpdater = mock(SlotPostUpdater.class);
+        eveningScheduler = mock(EveningScheduler.class);
+        leaderboardScheduler = mock(LeaderboardScheduler.class);
+        slotCatalog = mock(SlotCatalog.class);
+        when(slotPostUpdater.refreshSlots(any())).thenAnswer(invocation -> {
+            Collection<Long> slotIds = invocation.getArgument(0);
+            refreshed.add(Set.copyOf(slotIds));
+            CountDownLatch latch = release;
+            if (latch != null) {
+                latch.await(3, TimeUnit.SECONDS);
+            }
+            return untracked;
+        });
+
+        handler = new MainBotEventHandler(feed, slotPostUpdater, eveningScheduler, leaderboardScheduler, slotCatalog);
+    }
+
+    @AfterEach
+    void tearDown() {
+        handler.shutdown();
+    }
+
+    @Test
+    void eventsArrivingDuringRefreshAreCoalescedIntoOneBatch() throws Exception {
+        release = new CountDownLatch(1);
+
+        handler.accept(event(Type.SLOT_CHANGED, 1L));
+        awaitTrue(() -> refreshed.size() == 1);
+
+        handler.accept(event(Type.BOOKING_CHANGED, 2L, 3L));
+        handler.accept(event(Type.BOOKING_CHANGED, 3L));
+        handler.accept(event(Type.SLOT_CHANGED, 4L));
+        release.countDown();
+
+        awaitTrue(() -> refreshed.size() == 2);
+        Thread.sleep(100);
+
+        assertEquals(List.of(Set.of(1L), Set.of(2L, 3L, 4L)), refreshed);
+        verify(slotCatalog, times(2)).invalidate();
+    }
+
+    @Test
+    void heartbeatOnlyMarksTheFeedAsLive() throws Exception {
+        handler.accept(event(Type.HEARTBEAT));
+        Thread.sleep(100);
+
+        assertTrue(feed.isLive());
+        assertTrue(refreshed.isEmpty());
+        verify(leaderboardScheduler, never()).refreshPinnedMessage();
+    }
+
+    @Test
+    void slotsWithoutPostsRunEveningPublish() throws Exception {
+        untracked = Set.of(5L);
+
+        handler.accept(event(Type.SLOT_CHANGED, 5L));
+
+        verify(eveningScheduler, timeout(2_000)).run();
+        assertEquals(List.of(Set.of(5L)), refreshed);
+    }
+
+    @Test
+    void scoreChangeRefreshesLeaderboardWithoutTouchingPosts() throws Exception {
+        handler.accept(event(Type.SCORE_CHANGED));
+
+        verify(leaderboardScheduler, timeout(2_000)).refreshPinnedMessage();
+        assertTrue(refreshed.isEmpty());
+    }
+
+    private static MainBotEventDTO event(Type type, Long... slotIds) {
+        return new MainBotEventDTO(type, List.of(slotIds));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 3 s");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
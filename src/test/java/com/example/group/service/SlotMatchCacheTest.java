@@ -0,0 +1,85 @@
+package com.example.group.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotMatchCacheTest {
+
+    private static final SlotMatchCache.Key KEY = key("київ склад");
+    private static final SlotMatchResult RESULT = new SlotMatchResult(List.of());
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void servesStoredResultForTheSameVersion() {
+        SlotMatchCache cache = new SlotMatchCache(registry, 60_000, 100);
+        cache.put(KEY, 1, RESULT);
+
+        assertSame(RESULT, cache.get(KEY, 1).orElseThrow());
+        assertTrue(cache.get(key("львів"), 1).isEmpty());
+        assertEquals(1.0, registry.get("bot.slots.match.cache").tag("result", "hit").counter().count());
+        assertEquals(1.0, registry.get("bot.slots.match.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void newCatalogVersionDropsEverything() {
+        SlotMatchCache cache = new SlotMatchCache(registry, 60_000, 100);
+        cache.put(KEY, 1, RESULT);
+
+        assertTrue(cache.get(KEY, 2).isEmpty());
+        assertTrue(cache.get(KEY, 1).isEmpty());
+        assertEquals(0.0, size());
+    }
+
+    /** Запрос, начатый до обновления каталога, не сбрасывает кэш новой версии и не попадает в него */
+    @Test
+    void lateRequestWithOlderVersionKeepsNewerEntries() {
+        SlotMatchCache cache = new SlotMatchCache(registry, 60_000, 100);
+        cache.put(KEY, 2, RESULT);
+
+        assertTrue(cache.get(KEY, 1).isEmpty());
+        cache.put(key("львів"), 1, RESULT);
+
+        assertSame(RESULT, cache.get(KEY, 2).orElseThrow());
+        assertTrue(cache.get(key("львів"), 2).isEmpty());
+        assertEquals(1.0, size());
+    }
+
+    @Test
+    void expiredEntryIsAMiss() throws InterruptedException {
+        SlotMatchCache cache = new SlotMatchCache(registry, 20, 100);
+        cache.put(KEY, 1, RESULT);
+
+        Thread.sleep(50);
+
+        assertFalse(cache.get(KEY, 1).isPresent());
+    }
+
+    @Test
+    void fullCacheMakesRoomForNewEntry() {
+        SlotMatchCache cache = new SlotMatchCache(registry, 60_000, 2);
+        cache.put(key("a"), 1, RESULT);
+        cache.put(key("b"), 1, RESULT);
+
+        cache.put(key("c"), 1, RESULT);
+
+        assertTrue(size() <= 2);
+        assertSame(RESULT, cache.get(key("c"), 1).orElseThrow());
+    }
+
+    private double size() {
+        return registry.get("bot.slots.match.cache.size").gauge().value();
+    }
+
+    private static SlotMatchCache.Key key(String place) {
+        return new SlotMatchCache.Key(LocalDate.of(2030, 1, 15), 600, 1080, place, LocalDate.of(2030, 1, 14).toEpochDay());
+    }
+}
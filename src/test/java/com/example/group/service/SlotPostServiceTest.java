@@ -0,0 +1,210 @@
+package com.example.group.service;
+
+import com.example.group.config.BotConfig;
+import com.example.group.dto.SlotBookingDTO;
+import com.example.group.dto.SlotDTO;
+import com.example.group.model.Booking;
+import com.example.group.model.GroupShiftMessage;
+import com.example.group.repository.GroupShiftMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.telegram.telegrambots.bots.TelegramLongPollingBot;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.DeleteMessage;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Публикация поста через настоящий шлюз и заглушки бота и репозитория: запись поста
+ * хранится в одном поле, как строка таблицы {@code group_shift_messages}.
+ */
+class SlotPostServiceTest {
+
+    private static final Long CHAT_ID = -100L;
+
+    private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger saves = new AtomicInteger();
+    private final AtomicInteger nextMessageId = new AtomicInteger(500);
+
+    private volatile GroupShiftMessage stored;
+    private volatile CountDownLatch telegramGate;
+    private GroupShiftMessageRepository repo;
+    private TelegramLongPollingBot bot;
+    private TelegramGateway gateway;
+    private SlotPostService service;
+
+    @BeforeEach
+    void setUp() throws TelegramApiException {
+        bot = mock(TelegramLongPollingBot.class);
+        when(bot.execute(any(BotApiMethod.class))).thenAnswer(invocation -> {
+            BotApiMethod<?> method = invocation.getArgument(0);
+            if (method instanceof DeleteMessage delete) {
+                calls.add("DeleteMessage:" + delete.getMessageId());
+                return true;
+            }
+            calls.add(method.getClass().getSimpleName());
+            CountDownLatch gate = telegramGate;
+            if (gate != null) {
+                gate.await(3, TimeUnit.SECONDS);
+            }
+            Message message = new Message();
+            message.setMessageId(nextMessageId.incrementAndGet());
+            return message;
+        });
+
+        repo = mock(GroupShiftMessageRepository.class);
+        when(repo.findByChatIdAndSlotId(any(), anyLong())).thenAnswer(invocation -> Optional.ofNullable(stored));
+        when(repo.save(any(GroupShiftMessage.class))).thenAnswer(invocation -> {
+            saves.incrementAndGet();
+            stored = invocation.getArgument(0);
+            return stored;
+        });
+        doAnswer(invocation -> {
+            stored = null;
+            return null;
+        }).when(repo).delete(any());
+
+        gateway = new TelegramGateway(new SimpleMeterRegistry(), 1000, 600, 100, 0, 100, 3, 5_000);
+        service = new SlotPostService(repo, new BotConfig(), gateway);
+        ReflectionTestUtils.setField(service, "verifyIntervalMs", 3_600_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gateway.shutdown();
+    }
+
+    @Test
+    void firstPublishSendsPostAndStoresItsHash() throws Exception {
+        Message sent = publish(slot(1), false, false);
+
+        assertEquals(List.of("SendMessage"), calls);
+        assertEquals(sent.getMessageId(), stored.getMessageId());
+        assertNotNull(stored.getRenderHash());
+        assertNotNull(stored.getPostedAt());
+    }
+
+    @Test
+    void unchangedPostIsNeitherEditedNorSaved() throws Exception {
+        publish(slot(1), false, false);
+        Integer messageId = stored.getMessageId();
+        int savesAfterSend = saves.get();
+
+        Message result = publish(slot(1), false, false);
+
+        assertEquals(List.of("SendMessage"), calls);
+        assertEquals(messageId, result.getMessageId());
+        assertEquals(savesAfterSend, saves.get());
+    }
+
+    @Test
+    void changedFlagsAreSavedWithoutTouchingTelegram() throws Exception {
+        publish(slot(1), false, false);
+        int savesAfterSend = saves.get();
+
+        publish(slot(1), true, false);
+
+        assertEquals(List.of("SendMessage"), calls);
+        assertEquals(savesAfterSend + 1, saves.get());
+        assertTrue(stored.isMorningPost());
+    }
+
+    @Test
+    void changedContentIsEdited() throws Exception {
+        publish(slot(1), false, false);
+        Long hash = stored.getRenderHash();
+
+        publish(slot(2), false, false);
+
+        assertEquals(List.of("SendMessage", "EditMessageText"), calls);
+        assertNotEquals(hash, stored.getRenderHash());
+    }
+
+    /** Раз в интервал неизменный пост всё же правится — так узнаём, что его не удалили руками */
+    @Test
+    void samePostIsEditedOnceVerificationIsDue() throws Exception {
+        publish(slot(1), false, false);
+        stored.setPostedAt(LocalDateTime.now().minusHours(2));
+
+        publish(slot(1), false, false);
+
+        assertEquals(List.of("SendMessage", "EditMessageText"), calls);
+        assertTrue(stored.getPostedAt().isAfter(LocalDateTime.now().minusMinutes(1)));
+    }
+
+    /** Снятие поста ждёт публикацию, которая уже ушла в Telegram: удалённая запись не сохраняется заново */
+    @Test
+    void retiringWaitsForPublishInFlight() throws Exception {
+        GroupShiftMessage record = GroupShiftMessage.builder().chatId(CHAT_ID).slotId(7L).messageId(10).build();
+        stored = record;
+        telegramGate = new CountDownLatch(1);
+
+        CompletableFuture<Message> published = service.publishSlotPost(bot, CHAT_ID, slot(1), false, false);
+        awaitTrue(() -> calls.size() == 1);
+        CompletableFuture<Message> retired = service.retireCancelledPost(bot, CHAT_ID, record, null);
+        Thread.sleep(100);
+        assertEquals(List.of("EditMessageText"), calls);
+
+        telegramGate.countDown();
+        Message edited = published.get(2, TimeUnit.SECONDS);
+        retired.get(2, TimeUnit.SECONDS);
+
+        // удаляется сообщение, которое оставила публикация, а не то, что было в записи на момент вызова
+        assertEquals(List.of("EditMessageText", "DeleteMessage:" + edited.getMessageId()), calls);
+        assertNull(stored);
+        assertEquals(1, saves.get());
+    }
+
+    private Message publish(SlotDTO slot, boolean morningPost, boolean eveningPost) throws Exception {
+        return service.publishSlotPost(bot, CHAT_ID, slot, morningPost, eveningPost).get(2, TimeUnit.SECONDS);
+    }
+
+    private static SlotDTO slot(int activeBookings) {
+        SlotDTO slot = new SlotDTO();
+        slot.setId(7L);
+        slot.setPlaceName("Склад «Південний»");
+        slot.setCityName("Київ");
+        slot.setStart(LocalDateTime.now().plusDays(1).withHour(10).withMinute(0));
+        slot.setEnd(slot.getStart().plusHours(8));
+        slot.setCapacity(5);
+        for (int i = 0; i < activeBookings; i++) {
+            slot.getBookings().add(new SlotBookingDTO((long) i, Booking.BookingStatus.CONFIRMED, null, null, "Іван" + i, "Петренко", null));
+        }
+        return slot;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 3 s");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
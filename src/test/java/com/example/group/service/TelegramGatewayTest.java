@@ -0,0 +1,189 @@
+package com.example.group.service;
+
+import com.example.group.service.TelegramGateway.Lane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.ResponseParameters;
+import org.telegram.telegrambots.meta.bots.AbsSender;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Шлюз с настоящим потоком-планировщиком и заглушкой бота. Лимиты чата подобраны так,
+ * чтобы за время теста бакет чата либо не пополнялся вовсе, либо пополнялся раз в полсекунды.
+ */
+class TelegramGatewayTest {
+
+    /** Один токен чата за сто минут — в пределах теста чат не пополняется */
+    private static final double FROZEN_CHAT = 0.01;
+
+    private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> attempts = Collections.synchronizedList(new ArrayList<>());
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private AbsSender bot;
+    private TelegramApiRequestException rateLimited;
+    private TelegramGateway gateway;
+
+    @BeforeEach
+    void setUp() throws TelegramApiException {
+        bot = mock(AbsSender.class);
+        when(bot.execute(any(BotApiMethod.class))).thenAnswer(invocation -> {
+            SendMessage message = invocation.getArgument(0);
+            attempts.add(message.getText());
+            if (rateLimited != null && message.getText().startsWith("429:")) {
+                TelegramApiRequestException e = rateLimited;
+                rateLimited = null;
+                throw e;
+            }
+            sent.add(message.getText());
+            return new Message();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (gateway != null) {
+            gateway.shutdown();
+        }
+    }
+
+    @Test
+    void bulkStopsAtTheChatReserveWhileInteractiveStillGoesOut() throws Exception {
+        gateway = gateway(FROZEN_CHAT, 5, 2, 5_000);
+
+        List<CompletableFuture<Message>> bulk = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            bulk.add(gateway.submit(bot, new SendMessage("1", "bulk" + i), Lane.BULK));
+        }
+        awaitTrue(() -> sent.size() == 3);
+        Thread.sleep(200);
+        assertEquals(List.of("bulk0", "bulk1", "bulk2"), sent);
+
+        gateway.submit(bot, new SendMessage("1", "answer"), Lane.INTERACTIVE).get(2, TimeUnit.SECONDS);
+
+        assertTrue(sent.contains("answer"));
+        assertFalse(bulk.get(3).isDone());
+        assertFalse(bulk.get(4).isDone());
+        assertEquals(2.0, queueDepth(Lane.BULK));
+    }
+
+    @Test
+    void saturatedChatDoesNotBlockAnotherChat() throws Exception {
+        gateway = gateway(FROZEN_CHAT, 2, 0, 5_000);
+
+        List<CompletableFuture<Message>> busy = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            busy.add(gateway.submit(bot, new SendMessage("1", "busy" + i), Lane.BULK));
+        }
+        gateway.submit(bot, new SendMessage("2", "other"), Lane.BULK).get(2, TimeUnit.SECONDS);
+
+        assertTrue(sent.contains("other"));
+        assertFalse(busy.get(2).isDone());
+        assertFalse(busy.get(3).isDone());
+    }
+
+    @Test
+    void rateLimitedCallIsRetriedAtTheHeadOfItsLane() throws Exception {
+        // один токен в полсекунды: «second» не может уйти раньше, чем придёт 429 на «first»
+        gateway = gateway(120, 1, 0, 10_000);
+        rateLimited = tooManyRequests(1);
+
+        CompletableFuture<Message> first = gateway.submit(bot, new SendMessage("1", "429:first"), Lane.BULK);
+        CompletableFuture<Message> second = gateway.submit(bot, new SendMessage("1", "second"), Lane.BULK);
+        CompletableFuture<Message> third = gateway.submit(bot, new SendMessage("1", "third"), Lane.BULK);
+        CompletableFuture.allOf(first, second, third).get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of("429:first", "429:first", "second", "third"), attempts);
+        assertEquals(List.of("429:first", "second", "third"), sent);
+        assertEquals(1.0, registry.get("telegram.outbound.retry").counter().count());
+    }
+
+    @Test
+    void executeWithdrawsItsCallAfterMaxWait() throws Exception {
+        gateway = gateway(FROZEN_CHAT, 1, 0, 300);
+        gateway.submit(bot, new SendMessage("1", "hog"), Lane.BULK).get(2, TimeUnit.SECONDS);
+
+        long started = System.nanoTime();
+        assertThrows(TelegramApiException.class,
+                () -> gateway.execute(bot, new SendMessage("1", "late"), Lane.INTERACTIVE));
+
+        assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(300));
+        assertEquals(0.0, queueDepth(Lane.INTERACTIVE));
+        assertEquals(1.0, registry.get("telegram.outbound.expired").tag("lane", "interactive").counter().count());
+        assertFalse(sent.contains("late"));
+    }
+
+    @Test
+    void cancelledSubmitIsDroppedFromTheQueue() throws Exception {
+        gateway = gateway(FROZEN_CHAT, 1, 0, 5_000);
+        gateway.submit(bot, new SendMessage("1", "hog"), Lane.BULK).get(2, TimeUnit.SECONDS);
+
+        CompletableFuture<Message> cancelled = gateway.submit(bot, new SendMessage("1", "cancelled"), Lane.BULK);
+        assertEquals(1.0, queueDepth(Lane.BULK));
+        cancelled.cancel(false);
+
+        awaitTrue(() -> queueDepth(Lane.BULK) == 0);
+        assertFalse(sent.contains("cancelled"));
+    }
+
+    @Test
+    void fullLaneRejectsNewCalls() throws Exception {
+        gateway = new TelegramGateway(registry, 1000, FROZEN_CHAT, 1, 0, 2, 3, 5_000);
+        gateway.submit(bot, new SendMessage("1", "hog"), Lane.BULK).get(2, TimeUnit.SECONDS);
+        gateway.submit(bot, new SendMessage("1", "queued0"), Lane.BULK);
+        gateway.submit(bot, new SendMessage("1", "queued1"), Lane.BULK);
+
+        CompletableFuture<Message> rejected = gateway.submit(bot, new SendMessage("1", "rejected"), Lane.BULK);
+
+        assertTrue(rejected.isCompletedExceptionally());
+        assertEquals(1.0, registry.get("telegram.outbound.rejected").tag("lane", "bulk").counter().count());
+    }
+
+    private TelegramGateway gateway(double chatPerMinute, double chatBurst, double chatReserve, long maxWaitMs) {
+        return new TelegramGateway(registry, 1000, chatPerMinute, chatBurst, chatReserve, 100, 3, maxWaitMs);
+    }
+
+    private double queueDepth(Lane lane) {
+        return registry.get("telegram.outbound.queue.depth").tag("lane", lane.name().toLowerCase()).gauge().value();
+    }
+
+    private static TelegramApiRequestException tooManyRequests(int retryAfterSeconds) {
+        ResponseParameters parameters = mock(ResponseParameters.class);
+        when(parameters.getRetryAfter()).thenReturn(retryAfterSeconds);
+        TelegramApiRequestException e = mock(TelegramApiRequestException.class);
+        when(e.getErrorCode()).thenReturn(429);
+        when(e.getParameters()).thenReturn(parameters);
+        return e;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 3 s");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.group.service.impl;
+
+import com.example.group.controllers.MainBotApiClient;
+import com.example.group.dto.SlotBatchDTO;
+import com.example.group.dto.SlotDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotCatalogImplTest {
+
+    private final FakeApi api = new FakeApi();
+
+    @Test
+    void loadsUpcomingSlotsAndIndexesThem() {
+        SlotCatalogImpl catalog = new SlotCatalogImpl(api, new SimpleMeterRegistry(), 300_000);
+        SlotDTO slot = slot(1L);
+        api.upcoming = List.of(slot);
+
+        catalog.refresh();
+
+        assertEquals(List.of(slot), catalog.upcomingSlots());
+        assertEquals(List.of(slot), catalog.slotsForDate(slot.getStart().toLocalDate()));
+        assertEquals(slot, catalog.findById(1L).orElseThrow());
+        assertEquals(1, catalog.version());
+    }
+
+    @Test
+    void keepsSnapshotOnEmptyListWhileFresh() {
+        SlotCatalogImpl catalog = new SlotCatalogImpl(api, new SimpleMeterRegistry(), 300_000);
+        api.upcoming = List.of(slot(1L));
+        catalog.refresh();
+
+        api.upcoming = List.of();
+        catalog.refresh();
+
+        assertEquals(1, catalog.upcomingSlots().size());
+    }
+
+    /**
+     * Прошлый ответ коалесцера — не подтверждение снимка: пока основной бот лежит, снимок стареет,
+     * и после max-stale пустой список уже принимается.
+     */
+    @Test
+    void staleReadsDoNotRefreshSnapshotAge() throws InterruptedException {
+        SlotCatalogImpl catalog = new SlotCatalogImpl(api, new SimpleMeterRegistry(), 200);
+        List<SlotDTO> slots = List.of(slot(1L));
+        api.upcoming = slots;
+        catalog.refresh();
+
+        api.stale = true;
+        for (int i = 0; i < 6; i++) {
+            Thread.sleep(50);
+            catalog.refresh();
+        }
+        assertEquals(slots, catalog.upcomingSlots());
+
+        api.stale = false;
+        api.upcoming = List.of();
+        catalog.refresh();
+
+        assertTrue(catalog.upcomingSlots().isEmpty());
+        assertEquals(2, catalog.version());
+    }
+
+    private static SlotDTO slot(Long id) {
+        SlotDTO slot = new SlotDTO();
+        slot.setId(id);
+        slot.setStart(LocalDateTime.now().plusDays(1).withHour(10).withMinute(0));
+        slot.setEnd(slot.getStart().plusHours(8));
+        return slot;
+    }
+
+    private static final class FakeApi implements MainBotApiClient {
+        List<SlotDTO> upcoming = List.of();
+        boolean stale;
+
+        @Override
+        public List<SlotDTO> getUpcomingSlots() {
+            return upcoming;
+        }
+
+        @Override
+        public boolean lastReadWasStale() {
+            return stale;
+        }
+
+        @Override
+        public List<SlotDTO> getSlotsForDate(LocalDate date) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SlotDTO getSlotById(Long slotId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SlotDTO getExpiredSlotById(Long slotId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SlotBatchDTO getSlotsByIds(Collection<Long> slotIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void createBooking(Long telegramUserId, Long slotId, String username, String firstName, String lastName) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.group.service.parser;
+
+import com.example.group.service.parser.DateTimeScanner.Kind;
+import com.example.group.service.parser.DateTimeScanner.Match;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Сканер обязан давать те же совпадения, группы и вырезанный текст, что и прежние регулярки
+ * {@code PatternParser}, но без их квадратичного перебора на длинных сериях пробелов и цифр.
+ */
+class DateTimeScannerTest {
+
+    /** Шаблоны PatternParser до перехода на сканер */
+    private static final Map<Kind, Pattern> LEGACY = new EnumMap<>(Kind.class);
+
+    static {
+        LEGACY.put(Kind.DATE_DOTTED, Pattern.compile("(?iu)(\\d{1,2})[./](\\d{1,2})(?:[./](\\d{2,4}))?(?:\\s*\\([^)]*\\))?"));
+        LEGACY.put(Kind.DATE_ISO, Pattern.compile("(?iu)(\\d{4})-(\\d{1,2})-(\\d{1,2})"));
+        LEGACY.put(Kind.TIME_FOUR_PARTS, Pattern.compile("(?iu)(\\d{1,2}[:.]\\d{2})[:.]?(\\d{1,2}[:.]\\d{2})"));
+        LEGACY.put(Kind.TIME_RANGE, Pattern.compile(
+                "(?iu)(?:[ззcс]\\s*)?(?<start>\\d{1,2}(?::?\\d{1,2})?)?\\s*[–—:\\-]\\s*(?<end>\\d{1,2}(?::?\\d{1,2})?)?"));
+        LEGACY.put(Kind.TIME_FROM_TO, Pattern.compile(
+                "(?iu)(?:[ззcс]\\s*)?(?<start>\\d{1,2}(?::?\\d{1,2})?)?\\s*(?<!\\p{L})(?:до|to|по|till)(?!\\p{L})\\s*(?<end>\\d{1,2}(?::?\\d{1,2})?)?"));
+    }
+
+    private static final List<String> CORPUS = List.of(
+            "",
+            "Іван Петренко 15.05 Шоурум 10:00-18:00",
+            "15/05/2024 (пт) склад з 10 до 18",
+            "2024-05-15 Київ 9 to 21",
+            "запис на 03.06 (понеділок) 8.00.20.00 Оболонь",
+            "з 10 - 18, Поділ, 1.1",
+            "C 9:30 — 17 Лівий берег",
+            "с 7 по 15 Дарниця",
+            "до 20",
+            "till 22:00 ТРЦ",
+            "10:00–18:00",
+            "10.00:18.00",
+            "-18",
+            "12.12.12.12.12",
+            "1/2/3/4/5",
+            "пододо 10 до",
+            "Todo 5 to 6 tomorrow",
+            "(((1.1 ((( )",
+            "2024-5-1 2024-05-15-16",
+            "9:5 - 10:75",
+            "15.05 (пт\n16.05 (сб)",
+            "ЗАПИС З 10 ДО 18 ПО 19.05",
+            "1\t-\t2 3\u000B–\f4",
+            "99.99.9999 99:99-99:99 9999-99-99"
+    );
+
+    private static final String FUZZ_ALPHABET = "0123456789.:/-–— ()\tзсcЗСCдопotilTL ab";
+
+    @Test
+    void matchesLegacyPatternsOnCorpus() {
+        for (String text : CORPUS) {
+            assertSameAsLegacy(text);
+        }
+    }
+
+    @Test
+    void matchesLegacyPatternsOnFuzzedInput() {
+        Random random = new Random(20240515L);
+        for (int i = 0; i < 20_000; i++) {
+            assertSameAsLegacy(randomText(random, random.nextInt(40)));
+        }
+    }
+
+    @Test
+    void ignoresTextPastTelegramLimit() {
+        String text = " ".repeat(DateTimeScanner.MAX_INPUT) + "10:00-18:00";
+
+        assertEquals(text, DateTimeScanner.removeAll(text, Kind.TIME_FOUR_PARTS));
+        assertEquals(text, DateTimeScanner.removeAll(text, Kind.TIME_RANGE));
+    }
+
+    @Test
+    void scansPathologicalInputsInLinearTime() {
+        int n = DateTimeScanner.MAX_INPUT;
+        List<String> inputs = List.of(
+                " ".repeat(n),
+                "\t \n".repeat(n / 3),
+                "1.1 (".repeat(n / 5),
+                "1".repeat(n),
+                "1-".repeat(n / 2),
+                "1 -".repeat(n / 3),
+                "з ".repeat(n / 2),
+                "1:".repeat(n / 2),
+                "12.12".repeat(n / 5),
+                "до ".repeat(n / 3) + "x"
+        );
+
+        // регулярки тратили на каждый такой текст до ~0.7 с
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            for (String text : inputs) {
+                for (Kind kind : Kind.values()) {
+                    DateTimeScanner.removeAll(text, kind);
+                }
+            }
+        });
+    }
+
+    private static void assertSameAsLegacy(String text) {
+        for (Kind kind : Kind.values()) {
+            Pattern pattern = LEGACY.get(kind);
+            assertEquals(legacyMatches(pattern, kind, text), scannerMatches(kind, text),
+                    () -> kind + " on \"" + text + "\"");
+            assertEquals(pattern.matcher(text).replaceAll(" "), DateTimeScanner.removeAll(text, kind),
+                    () -> kind + " strip on \"" + text + "\"");
+        }
+    }
+
+    private static List<Match> legacyMatches(Pattern pattern, Kind kind, String text) {
+        List<Match> matches = new ArrayList<>();
+        Matcher matcher = pattern.matcher(text);
+        boolean named = kind == Kind.TIME_RANGE || kind == Kind.TIME_FROM_TO;
+        while (matcher.find()) {
+            matches.add(named
+                    ? new Match(matcher.start(), matcher.end(), matcher.group("start"), matcher.group("end"), null)
+                    : new Match(matcher.start(), matcher.end(), matcher.group(1), matcher.group(2),
+                    matcher.groupCount() >= 3 ? matcher.group(3) : null));
+        }
+        return matches;
+    }
+
+    private static List<Match> scannerMatches(Kind kind, String text) {
+        List<Match> matches = new ArrayList<>();
+        DateTimeScanner scanner = new DateTimeScanner(text);
+        Match match = scanner.find(kind, 0);
+        while (match != null) {
+            matches.add(match);
+            match = scanner.find(kind, match.end());
+        }
+        return matches;
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(FUZZ_ALPHABET.charAt(random.nextInt(FUZZ_ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+}
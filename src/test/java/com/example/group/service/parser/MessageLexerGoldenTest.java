@@ -0,0 +1,169 @@
+package com.example.group.service.parser;
+
+import com.example.group.dto.ParsedShiftRequest;
+import com.example.group.model.City;
+import com.example.group.model.Place;
+import com.example.group.repository.CityRepository;
+import com.example.group.repository.PlaceRepository;
+import com.example.group.service.PatternParser;
+import com.example.group.service.StopWordService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Эталонный корпус: разбор через {@link MessageLexer} должен совпадать с тем, что давал
+ * PatternParser на регулярках, — см. {@code src/test/resources/parser/golden-corpus.tsv}.
+ */
+class MessageLexerGoldenTest {
+
+    private static final String CORPUS = "/parser/golden-corpus.tsv";
+
+    private MessageLexer lexer;
+    private PatternParser parser;
+
+    @BeforeEach
+    void setUp() {
+        City kyiv = city("Київ");
+        CityRepository cities = mock(CityRepository.class);
+        when(cities.findByVisibleTrue()).thenReturn(List.of(kyiv, city("Львів"), city("Бровари")));
+
+        PlaceRepository places = mock(PlaceRepository.class);
+        when(places.findByVisibleTrue()).thenReturn(List.of(
+                place("Шоурум", kyiv),
+                place("Склад Оболонь", kyiv),
+                place("ТРЦ Ocean Plaza", kyiv),
+                place("Лівий берег", kyiv),
+                place("Поділ", kyiv),
+                place("Дарниця", kyiv)
+        ));
+
+        StopWordService stopWords = new StopWordService(cities, places);
+        stopWords.refreshStopWords();
+
+        lexer = new MessageLexer(stopWords);
+        parser = new PatternParser(stopWords, lexer);
+    }
+
+    @Test
+    void parsesCorpusLikeLegacyParser() throws IOException {
+        List<String> mismatches = new ArrayList<>();
+        int cases = 0;
+
+        for (String[] row : readCorpus()) {
+            cases++;
+            String message = unescape(row[0]);
+            Optional<ParsedShiftRequest> parsed = parser.parse(message);
+
+            List<String> expected = List.of(row).subList(1, row.length);
+            List<String> actual = List.of(
+                    parsed.isPresent() ? "yes" : "no",
+                    parsed.map(ParsedShiftRequest::getDate).map(date -> format(date, row[2])).orElse("-"),
+                    parsed.map(ParsedShiftRequest::getStartTime).map(Object::toString).orElse("-"),
+                    parsed.map(ParsedShiftRequest::getEndTime).map(Object::toString).orElse("-"),
+                    parsed.map(ParsedShiftRequest::getPlaceText).map(MessageLexerGoldenTest::escape).orElse("-"),
+                    parsed.map(ParsedShiftRequest::getUserFullName).map(MessageLexerGoldenTest::escape).orElse("-"),
+                    parser.extractNameOnly(message).map(MessageLexerGoldenTest::escape).orElse("-")
+            );
+
+            if (!expected.equals(actual)) {
+                mismatches.add(row[0] + "\n  expected " + expected + "\n  actual   " + actual);
+            }
+        }
+
+        assertTrue(cases > 40, "corpus not loaded");
+        assertTrue(mismatches.isEmpty(), () -> String.join("\n", mismatches));
+    }
+
+    @Test
+    void normalizesDashesSymbolsAndSpaces() {
+        assertEquals("10-18 Київ\nПоділ", lexer.normalize("  10—18 🙏 Київ \t\n\n  Поділ  "));
+        assertEquals("9 21", lexer.normalize("9…21"));
+        assertEquals("a b", lexer.normalize("a\u00a0\u00a0b"));
+    }
+
+    @Test
+    void splitsLinesAndDropsLocations() {
+        LexedMessage lexed = lexer.lex("Іван Петренко 15.05\nШоурум 10 (ІПН)");
+
+        assertEquals(List.of("Іван Петренко 15.05", "Шоурум 10 (ІПН)"), lexed.lines());
+        assertEquals("Іван Петренко 15.05 10 (ІПН)", lexed.textWithoutLocations());
+        assertTrue(lexed.hasDigits());
+    }
+
+    private static String format(LocalDate date, String expected) {
+        // у даты без года год зависит от сегодняшнего дня — сравниваем только день и месяц
+        return expected.startsWith("--") ? MonthDay.from(date).toString() : date.toString();
+    }
+
+    private static List<String[]> readCorpus() throws IOException {
+        InputStream in = MessageLexerGoldenTest.class.getResourceAsStream(CORPUS);
+        assertNotNull(in, CORPUS);
+
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] row = line.split("\t", -1);
+                assertEquals(8, row.length, "malformed corpus line: " + line);
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static String unescape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(switch (next) {
+                    case 'n' -> '\n';
+                    case 't' -> '\t';
+                    default -> next;
+                });
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String value) {
+        return Objects.requireNonNull(value).replace("\\", "\\\\").replace("\n", "\\n").replace("\t", "\\t");
+    }
+
+    private static City city(String name) {
+        City city = new City();
+        city.setName(name);
+        return city;
+    }
+
+    private static Place place(String name, City city) {
+        Place place = new Place();
+        place.setName(name);
+        place.setCity(city);
+        return place;
+    }
+}
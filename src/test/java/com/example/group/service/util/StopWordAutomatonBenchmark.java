@@ -0,0 +1,93 @@
+package com.example.group.service.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка токенов сообщения по стоп-словам: {@link StopWordAutomaton} против прежнего
+ * перебора всего словаря с {@code contains} в обе стороны на каждый токен.
+ * Запуск: {@code main} из IDE после {@code mvn test-compile}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StopWordAutomatonBenchmark {
+
+    /** Слов в словаре: городов и мест вместе */
+    @Param({"100", "1000"})
+    public int dictionarySize;
+
+    private Set<String> words;
+    private StopWordAutomaton automaton;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        words = new HashSet<>();
+        while (words.size() < dictionarySize) {
+            words.add(randomWord(random, 4 + random.nextInt(8)));
+        }
+        automaton = StopWordAutomaton.build(words);
+
+        // токены типичного сообщения-заявки: имя, место, служебные слова
+        List<String> message = new ArrayList<>(List.of("іван", "петренко", "хочу", "на", "зміну", "з", "до"));
+        List<String> sample = new ArrayList<>(words);
+        for (int i = 0; i < 5; i++) {
+            message.add(sample.get(random.nextInt(sample.size())));
+        }
+        tokens = message.toArray(String[]::new);
+    }
+
+    @Benchmark
+    public void automaton(Blackhole bh) {
+        for (String token : tokens) {
+            bh.consume(automaton.containsAny(token) || automaton.isPartOfAny(token));
+        }
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole bh) {
+        for (String token : tokens) {
+            bh.consume(words.contains(token)
+                    || words.stream().anyMatch(sw -> sw.contains(token) || token.contains(sw)));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StopWordAutomatonBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('а' + random.nextInt(32)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.group.service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StopWordAutomatonTest {
+
+    @Test
+    void answersBothDirections() {
+        StopWordAutomaton automaton = StopWordAutomaton.build(List.of("київ", "оболонь", "трц"));
+
+        assertTrue(automaton.containsAny("київська"));
+        assertTrue(automaton.containsAny("затрцю"));
+        assertFalse(automaton.containsAny("ки"));
+
+        assertTrue(automaton.isPartOfAny("боло"));
+        assertTrue(automaton.isPartOfAny("київ"));
+        assertFalse(automaton.isPartOfAny("иївк"));
+        assertFalse(automaton.isPartOfAny(""));
+    }
+
+    @Test
+    void emptyDictionaryMatchesNothing() {
+        assertFalse(StopWordAutomaton.EMPTY.containsAny("київ"));
+        assertFalse(StopWordAutomaton.EMPTY.isPartOfAny("к"));
+    }
+
+    /** Сверка с прежней проверкой {@code sw.contains(token) || token.contains(sw)} по всем словам */
+    @Test
+    void agreesWithNaiveScanOnRandomWords() {
+        Random random = new Random(9);
+        for (int round = 0; round < 200; round++) {
+            List<String> words = new ArrayList<>();
+            for (int i = random.nextInt(30); i > 0; i--) {
+                words.add(randomWord(random, 1 + random.nextInt(8)));
+            }
+            StopWordAutomaton automaton = StopWordAutomaton.build(words);
+
+            for (int i = 0; i < 200; i++) {
+                String token = randomWord(random, 1 + random.nextInt(10));
+                boolean contains = words.stream().anyMatch(token::contains);
+                boolean partOf = words.stream().anyMatch(word -> word.contains(token));
+
+                assertEquals(contains, automaton.containsAny(token), () -> token + " contains any of " + words);
+                assertEquals(partOf, automaton.isPartOfAny(token), () -> token + " is part of " + words);
+            }
+        }
+    }
+
+    private static String randomWord(Random random, int length) {
+        // маленький алфавит — чтобы совпадения и общие префиксы встречались часто
+        String alphabet = "абвгі";
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
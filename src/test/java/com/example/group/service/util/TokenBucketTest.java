@@ -0,0 +1,100 @@
+package com.example.group.service.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void startsFullAndEmptiesAfterCapacityTakes() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertTrue(bucket.tryTake(0, 0));
+        assertTrue(bucket.tryTake(0, 0));
+        assertTrue(bucket.tryTake(0, 0));
+        assertFalse(bucket.tryTake(0, 0));
+    }
+
+    @Test
+    void lowPriorityTakesStopAtTheReserve() {
+        TokenBucket bucket = new TokenBucket(5, 1, 0);
+
+        assertTrue(bucket.tryTake(2, 0));
+        assertTrue(bucket.tryTake(2, 0));
+        assertTrue(bucket.tryTake(2, 0));
+        assertFalse(bucket.tryTake(2, 0), "the last two tokens are reserved");
+
+        assertTrue(bucket.tryTake(0, 0));
+        assertTrue(bucket.tryTake(0, 0));
+        assertFalse(bucket.tryTake(0, 0));
+    }
+
+    @Test
+    void reserveNeverExceedsCapacityMinusOne() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+        assertTrue(bucket.tryTake(10, 0));
+        assertFalse(bucket.tryTake(10, 0));
+    }
+
+    @Test
+    void refillsContinuouslyUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+        bucket.tryTake(0, 0);
+        bucket.tryTake(0, 0);
+
+        assertEquals(SECOND / 2, bucket.nanosUntilAvailable(0, 0));
+        assertFalse(bucket.tryTake(0, SECOND / 2 - 1));
+        assertTrue(bucket.tryTake(0, SECOND / 2));
+
+        // простой дольше нужного не копит больше capacity
+        long later = 100 * SECOND;
+        assertTrue(bucket.isIdle(later));
+        assertTrue(bucket.tryTake(0, later));
+        assertTrue(bucket.tryTake(0, later));
+        assertFalse(bucket.tryTake(0, later));
+    }
+
+    @Test
+    void waitAccountsForTheReserve() {
+        TokenBucket bucket = new TokenBucket(4, 1, 0);
+        bucket.tryTake(0, 0);
+        bucket.tryTake(0, 0);
+
+        assertEquals(0, bucket.nanosUntilAvailable(0, 0));
+        assertEquals(0, bucket.nanosUntilAvailable(1, 0));
+        assertEquals(SECOND, bucket.nanosUntilAvailable(2, 0));
+    }
+
+    @Test
+    void blockHoldsTokensUntilItEnds() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+        bucket.blockUntil(5 * SECOND);
+
+        assertFalse(bucket.tryTake(0, SECOND));
+        assertFalse(bucket.isIdle(SECOND));
+        assertEquals(4 * SECOND, bucket.nanosUntilAvailable(0, SECOND));
+
+        // более ранний блок не сокращает текущий
+        bucket.blockUntil(2 * SECOND);
+        assertFalse(bucket.tryTake(0, 3 * SECOND));
+
+        assertTrue(bucket.tryTake(0, 5 * SECOND));
+    }
+
+    @Test
+    void worksAcrossNanoTimeOverflow() {
+        long start = Long.MAX_VALUE - SECOND / 2;
+        TokenBucket bucket = new TokenBucket(1, 1, start);
+        assertTrue(bucket.tryTake(0, start));
+
+        long afterWrap = start + SECOND;
+        assertTrue(afterWrap < 0);
+        assertTrue(bucket.tryTake(0, afterWrap));
+    }
+}
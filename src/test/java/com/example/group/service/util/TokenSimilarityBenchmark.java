@@ -0,0 +1,64 @@
+package com.example.group.service.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение токена запроса со словарём мест: {@link TokenSimilarity#withinOneEdit} против
+ * полной матрицы Левенштейна. Большинство пар в поиске не похожи — на них и выигрыш.
+ * Запуск: {@code main} из IDE после {@code mvn test-compile}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenSimilarityBenchmark {
+
+    private String[] vocabulary;
+    private String query;
+
+    @Setup
+    public void setUp() {
+        vocabulary = new String[]{
+                "оболонь", "поділ", "дарниця", "шоурум", "склад", "лівий", "берег", "троєщина",
+                "позняки", "осокорки", "виноградар", "теремки", "святошин", "лук'янівка", "печерськ", "бровари"
+        };
+        query = "оболон";
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole bh) {
+        for (String token : vocabulary) {
+            bh.consume(TokenSimilarity.withinOneEdit(token, query));
+        }
+    }
+
+    @Benchmark
+    public void fullMatrix(Blackhole bh) {
+        for (String token : vocabulary) {
+            bh.consume(TokenSimilarityTest.levenshtein(token, query) <= 1);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenSimilarityBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
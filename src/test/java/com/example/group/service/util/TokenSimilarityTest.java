@@ -0,0 +1,111 @@
+package com.example.group.service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link TokenSimilarity#withinOneEdit} против полной матрицы Левенштейна, которую он заменил.
+ */
+class TokenSimilarityTest {
+
+    @Test
+    void recognizesSingleEdits() {
+        assertTrue(TokenSimilarity.withinOneEdit("оболонь", "оболонь"));
+        assertTrue(TokenSimilarity.withinOneEdit("оболонь", "оболоонь"));
+        assertTrue(TokenSimilarity.withinOneEdit("оболонь", "оболон"));
+        assertTrue(TokenSimilarity.withinOneEdit("оболонь", "оболань"));
+        assertTrue(TokenSimilarity.withinOneEdit("", "а"));
+
+        assertFalse(TokenSimilarity.withinOneEdit("оболонь", "оболанн"));
+        assertFalse(TokenSimilarity.withinOneEdit("київ", "кіїв2"));
+        assertFalse(TokenSimilarity.withinOneEdit("ab", "ba"));
+    }
+
+    /** Все пары строк длины до 4 над алфавитом из трёх букв */
+    @Test
+    void agreesWithLevenshteinOnAllShortStrings() {
+        List<String> strings = new ArrayList<>();
+        collect("", 4, "аб1", strings);
+
+        for (String a : strings) {
+            for (String b : strings) {
+                assertSameAsMatrix(a, b);
+            }
+        }
+    }
+
+    /** Длинные токены и их мутации: расстояние 0, 1 и 2 встречаются одинаково часто */
+    @Test
+    void agreesWithLevenshteinOnMutatedTokens() {
+        Random random = new Random(14);
+        String alphabet = "абвгдеєжзиіїйклмнопрстуфхцчшщьюя'-0123456789";
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder token = new StringBuilder();
+            for (int n = random.nextInt(16); n > 0; n--) {
+                token.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            String mutated = token.toString();
+            for (int edits = random.nextInt(3); edits > 0; edits--) {
+                mutated = mutate(random, mutated, alphabet);
+            }
+            assertSameAsMatrix(token.toString(), mutated);
+        }
+    }
+
+    private static void assertSameAsMatrix(String a, String b) {
+        int distance = levenshtein(a, b);
+        assertEquals(distance <= 1, TokenSimilarity.withinOneEdit(a, b),
+                () -> "\"" + a + "\" vs \"" + b + "\", distance " + distance);
+        assertEquals(a.contains(b) || b.contains(a) || distance <= 1, TokenSimilarity.isSimilar(a, b),
+                () -> "isSimilar \"" + a + "\" vs \"" + b + "\"");
+    }
+
+    private static String mutate(Random random, String s, String alphabet) {
+        char c = alphabet.charAt(random.nextInt(alphabet.length()));
+        int pos = random.nextInt(s.length() + 1);
+        return switch (s.isEmpty() ? 0 : random.nextInt(3)) {
+            case 0 -> s.substring(0, pos) + c + s.substring(pos);
+            case 1 -> s.substring(0, Math.min(pos, s.length() - 1)) + s.substring(Math.min(pos, s.length() - 1) + 1);
+            default -> {
+                int at = Math.min(pos, s.length() - 1);
+                yield s.substring(0, at) + c + s.substring(at + 1);
+            }
+        };
+    }
+
+    private static void collect(String prefix, int maxLength, String alphabet, List<String> out) {
+        out.add(prefix);
+        if (prefix.length() == maxLength) {
+            return;
+        }
+        for (int i = 0; i < alphabet.length(); i++) {
+            collect(prefix + alphabet.charAt(i), maxLength, alphabet, out);
+        }
+    }
+
+    /** Прежняя реализация из SlotSearchIndex */
+    static int levenshtein(String a, String b) {
+        int[][] dp = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            dp[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            dp[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                dp[i][j] = Math.min(Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1), dp[i - 1][j - 1] + cost);
+            }
+        }
+        return dp[a.length()][b.length()];
+    }
+}
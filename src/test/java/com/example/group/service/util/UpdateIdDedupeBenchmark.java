@@ -0,0 +1,99 @@
+package com.example.group.service.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UpdateIdDedupe} против прежней пары {@code ConcurrentHashMap.newKeySet()} +
+ * {@code ConcurrentLinkedQueue}, у которой {@code size()} на каждом апдейте — O(n).
+ * Поток id как у long polling: почти всегда новый, изредка повтор.
+ * Запуск: {@code main} из IDE после {@code mvn test-compile}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UpdateIdDedupeBenchmark {
+
+    private static final int CAPACITY = 10_000;
+
+    private UpdateIdDedupe dedupe;
+    private BoxedDedupe boxed;
+    private int nextId;
+
+    @Setup
+    public void setUp() {
+        dedupe = new UpdateIdDedupe(CAPACITY);
+        boxed = new BoxedDedupe(CAPACITY);
+        // заполнены до предела — дальше каждый новый id вытесняет старый
+        for (nextId = 0; nextId < CAPACITY; nextId++) {
+            dedupe.markSeen(nextId);
+            boxed.markSeen(nextId);
+        }
+    }
+
+    @Benchmark
+    public boolean primitiveRing() {
+        return dedupe.markSeen(next());
+    }
+
+    @Benchmark
+    public boolean boxedQueue() {
+        return boxed.markSeen(next());
+    }
+
+    private int next() {
+        int id = nextId++;
+        return (id & 63) == 0 ? id - 1 : id;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UpdateIdDedupeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /** Реализация из TelegramBot до UpdateIdDedupe */
+    static final class BoxedDedupe {
+
+        private final int capacity;
+        private final ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>();
+        private final Set<Integer> processed = ConcurrentHashMap.newKeySet();
+
+        BoxedDedupe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        boolean markSeen(int updateId) {
+            if (processed.add(updateId)) {
+                queue.add(updateId);
+                while (queue.size() > capacity) {
+                    Integer old = queue.poll();
+                    if (old != null) {
+                        processed.remove(old);
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+}
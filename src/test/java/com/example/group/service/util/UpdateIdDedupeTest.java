@@ -0,0 +1,84 @@
+package com.example.group.service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpdateIdDedupeTest {
+
+    @Test
+    void rejectsRepeatedIds() {
+        UpdateIdDedupe dedupe = new UpdateIdDedupe(4);
+
+        assertTrue(dedupe.markSeen(10));
+        assertFalse(dedupe.markSeen(10));
+        assertTrue(dedupe.contains(10));
+        assertEquals(1, dedupe.size());
+    }
+
+    @Test
+    void evictsOldestIdOnceFull() {
+        UpdateIdDedupe dedupe = new UpdateIdDedupe(3);
+        dedupe.markSeen(1);
+        dedupe.markSeen(2);
+        dedupe.markSeen(3);
+
+        assertTrue(dedupe.markSeen(4));
+
+        assertFalse(dedupe.contains(1));
+        assertTrue(dedupe.contains(2));
+        assertTrue(dedupe.contains(4));
+        assertEquals(3, dedupe.size());
+    }
+
+    @Test
+    void handlesNegativeAndExtremeIds() {
+        UpdateIdDedupe dedupe = new UpdateIdDedupe(8);
+
+        assertTrue(dedupe.markSeen(-1));
+        assertTrue(dedupe.markSeen(Integer.MIN_VALUE));
+        assertTrue(dedupe.markSeen(Integer.MAX_VALUE));
+        assertTrue(dedupe.markSeen(0));
+
+        assertFalse(dedupe.markSeen(-1));
+        assertFalse(dedupe.markSeen(Integer.MIN_VALUE));
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new UpdateIdDedupe(0));
+    }
+
+    /** Сверка с очевидной моделью: множество + очередь вытеснения, как было в TelegramBot */
+    @Test
+    void agreesWithBoxedModelOnRandomIds() {
+        int capacity = 100;
+        UpdateIdDedupe dedupe = new UpdateIdDedupe(capacity);
+        Set<Integer> seen = new HashSet<>();
+        ArrayDeque<Integer> order = new ArrayDeque<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            // узкий диапазон, чтобы часто попадать и в живые, и в уже вытесненные id
+            int id = random.nextInt(300) * 0x10001;
+            boolean expected = seen.add(id);
+            if (expected) {
+                order.add(id);
+                if (order.size() > capacity) {
+                    seen.remove(order.poll());
+                }
+            }
+
+            assertEquals(expected, dedupe.markSeen(id), "id " + id + " at step " + i);
+            assertEquals(seen.size(), dedupe.size());
+        }
+    }
+}